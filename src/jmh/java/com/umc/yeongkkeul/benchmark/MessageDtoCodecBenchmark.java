@@ -0,0 +1,60 @@
+package com.umc.yeongkkeul.benchmark;
+
+import com.umc.yeongkkeul.converter.MessageDtoBinaryCodec;
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MessageDtoCodecBenchmark 클래스
+ * 채팅 메시지 하나를 Redis 값으로 직렬화/역직렬화하는 비용을 MessageDtoBinaryCodec과 GenericJackson2JsonRedisSerializer(기존 JSON)로 비교합니다.
+ *
+ * 실행: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageDtoCodecBenchmark {
+
+    @Param({"SHORT_TEXT", "TEXT", "IMAGE", "RECEIPT"})
+    public String kind;
+
+    private final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+
+    private MessageDto message;
+    private byte[] binary;
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+
+        message = MessageDtoSamples.of(MessageDtoSamples.Kind.valueOf(kind));
+        binary = MessageDtoBinaryCodec.encode(message);
+        json = jsonSerializer.serialize(message);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return MessageDtoBinaryCodec.encode(message);
+    }
+
+    @Benchmark
+    public MessageDto decodeBinary() {
+        return MessageDtoBinaryCodec.decode(binary);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        return jsonSerializer.serialize(message);
+    }
+
+    @Benchmark
+    public Object decodeJson() {
+        return jsonSerializer.deserialize(json);
+    }
+}
@@ -0,0 +1,46 @@
+package com.umc.yeongkkeul.benchmark;
+
+import com.github.f4b6a3.tsid.TsidCreator;
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 벤치마크와 크기 비교에 사용하는 채팅 메시지 샘플
+ * Redis에 저장되는 메시지와 같은 필드를 채웁니다. (ID, 채팅방, 보낸 사람, 타입, 내용, 시간, 안 읽은 수, 상태)
+ */
+final class MessageDtoSamples {
+
+    enum Kind {
+        SHORT_TEXT("TEXT", "ㅋㅋㅋ 좋아요"),
+        TEXT("TEXT", "오늘 점심은 도시락 싸왔어요. 이번 주 식비 목표까지 3만원 남았습니다! 다들 화이팅"),
+        IMAGE("IMAGE", "https://yeongkkeul-bucket.s3.ap-northeast-2.amazonaws.com/chat/3f2b9c1e-8d4a-4e7b-9f0a-2c6d1e5b7a90.jpg"),
+        RECEIPT("RECEIPT", "128734");
+
+        private final String messageType;
+        private final String content;
+
+        Kind(String messageType, String content) {
+            this.messageType = messageType;
+            this.content = content;
+        }
+    }
+
+    private MessageDtoSamples() {
+    }
+
+    static MessageDto of(Kind kind) {
+        return MessageDto.builder()
+                .id(TsidCreator.getTsid().toLong())
+                .chatRoomId(1024L)
+                .senderId(58231L)
+                .messageType(kind.messageType)
+                .content(kind.content)
+                .timestamp(LocalDateTime.now().toString())
+                .unreadCount(12)
+                .rabbitMQTransmissionStatus(true)
+                .finalTransmissionStatus(true)
+                .saveStatus(false)
+                .build();
+    }
+}
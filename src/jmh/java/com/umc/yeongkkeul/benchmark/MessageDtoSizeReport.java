@@ -0,0 +1,94 @@
+package com.umc.yeongkkeul.benchmark;
+
+import com.umc.yeongkkeul.converter.MessageDtoBinaryCodec;
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * MessageDtoSizeReport 클래스
+ * 채팅 메시지 하나가 차지하는 크기를 JSON(GenericJackson2JsonRedisSerializer)과 MessageDtoBinaryCodec으로 비교해 출력합니다.
+ *
+ * 1. 값의 바이트 수 (메시지 종류별)
+ * 2. --redis=host:port를 주면, ChatMessageStore와 같이 Hash(chat:room:{id}:message:body)에 메시지를 --count개 저장한 뒤
+ *    MEMORY USAGE로 잰 메시지 하나당 Redis 메모리 (필드 이름, Hash 엔트리 오버헤드 포함)
+ *
+ * 실행: ./gradlew codecSizeReport -PcodecSizeReportArgs="--redis=localhost:6379 --count=10000"
+ */
+public class MessageDtoSizeReport {
+
+    private static final String KEY_PREFIX = "benchmark:codec:";
+
+    public static void main(String[] args) {
+
+        String redis = null;
+        int count = 10000;
+        for (String arg : args) {
+            if (arg.startsWith("--redis=")) redis = arg.substring("--redis=".length());
+            else if (arg.startsWith("--count=")) count = Integer.parseInt(arg.substring("--count=".length()));
+        }
+
+        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+
+        System.out.printf("%-12s %10s %10s %8s%n", "kind", "json(B)", "binary(B)", "ratio");
+        for (MessageDtoSamples.Kind kind : MessageDtoSamples.Kind.values()) {
+            MessageDto message = MessageDtoSamples.of(kind);
+            int jsonSize = jsonSerializer.serialize(message).length;
+            int binarySize = MessageDtoBinaryCodec.encode(message).length;
+            System.out.printf("%-12s %10d %10d %7.1f%%%n", kind, jsonSize, binarySize, binarySize * 100.0 / jsonSize);
+        }
+
+        if (redis != null) {
+            reportRedisMemory(redis, count, jsonSerializer);
+        }
+    }
+
+    // 종류별 메시지를 번갈아 count개 저장하고, 형식마다 Hash 하나의 MEMORY USAGE를 메시지 수로 나눈다.
+    private static void reportRedisMemory(String redis, int count, GenericJackson2JsonRedisSerializer jsonSerializer) {
+
+        String[] hostAndPort = redis.split(":");
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(hostAndPort[0], Integer.parseInt(hostAndPort[1])));
+        connectionFactory.afterPropertiesSet();
+
+        RedisSerializer<String> stringSerializer = RedisSerializer.string();
+        byte[] jsonKey = stringSerializer.serialize(KEY_PREFIX + "json");
+        byte[] binaryKey = stringSerializer.serialize(KEY_PREFIX + "binary");
+        MessageDtoSamples.Kind[] kinds = MessageDtoSamples.Kind.values();
+
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.keyCommands().del(jsonKey, binaryKey);
+
+            for (int i = 0; i < count; i++) {
+                MessageDto message = MessageDtoSamples.of(kinds[i % kinds.length]);
+                byte[] field = stringSerializer.serialize(String.format("%019d", message.id())); // ChatMessageStore의 Hash 필드 형식
+                connection.hashCommands().hSet(jsonKey, field, jsonSerializer.serialize(message));
+                connection.hashCommands().hSet(binaryKey, field, MessageDtoBinaryCodec.encode(message));
+            }
+
+            long jsonMemory = memoryUsage(connection, jsonKey);
+            long binaryMemory = memoryUsage(connection, binaryKey);
+            System.out.printf("%nRedis MEMORY USAGE (%d messages, Hash)%n", count);
+            System.out.printf("json   : %,d B total, %.1f B/message%n", jsonMemory, (double) jsonMemory / count);
+            System.out.printf("binary : %,d B total, %.1f B/message (%.1f%%)%n",
+                    binaryMemory, (double) binaryMemory / count, binaryMemory * 100.0 / jsonMemory);
+
+            connection.keyCommands().del(jsonKey, binaryKey);
+        } finally {
+            connectionFactory.destroy();
+        }
+    }
+
+    // SAMPLES 0: Hash의 모든 엔트리를 계산
+    private static long memoryUsage(RedisConnection connection, byte[] key) {
+
+        Object usage = connection.execute("MEMORY", "USAGE".getBytes(StandardCharsets.UTF_8), key,
+                "SAMPLES".getBytes(StandardCharsets.UTF_8), "0".getBytes(StandardCharsets.UTF_8));
+        return (usage instanceof Number number) ? number.longValue() : -1;
+    }
+}
@@ -0,0 +1,90 @@
+package com.umc.yeongkkeul.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ChatLatencyReport 클래스
+ * 채팅방 크기(클라이언트 수)별로 전송-수신 지연 시간 히스토그램과 처리량을 모으는 클래스.
+ *
+ * 지연 시간은 메시지를 보낸 시각부터 같은 채팅방의 각 구독자가 받은 시각까지이며, 수신자마다 한 번씩 기록합니다. (μs 단위)
+ */
+public class ChatLatencyReport {
+
+    private static final String CSV_HEADER =
+            "time,label,room_size,sent,received,sent_per_sec,received_per_sec,p50_ms,p99_ms,p999_ms,max_ms";
+
+    private final Map<Integer, RoomSizeStats> statsByRoomSize = new ConcurrentHashMap<>();
+
+    public void recordSent(int roomSize) {
+        stats(roomSize).sent.increment();
+    }
+
+    public void recordReceived(int roomSize, long latencyNanos) {
+
+        RoomSizeStats stats = stats(roomSize);
+        stats.received.increment();
+        stats.latency.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+    }
+
+    /**
+     * 측정 결과를 출력하고 CSV 파일에 이어서 기록합니다.
+     *
+     * @param label 실행 이름 (같은 CSV에서 relay/embedded, 샤드 수 등을 비교하기 위함)
+     * @param elapsed 측정 시간
+     */
+    public void write(String label, Duration elapsed, Path output) throws IOException {
+
+        double seconds = elapsed.toMillis() / 1000.0;
+        StringBuilder csv = new StringBuilder();
+
+        System.out.printf("%n[%s] %.1fs%n", label, seconds);
+        System.out.printf("%9s %10s %10s %10s %10s %9s %9s %9s %9s%n",
+                "room_size", "sent", "received", "sent/s", "recv/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+
+        for (Map.Entry<Integer, RoomSizeStats> entry : new TreeMap<>(statsByRoomSize).entrySet()) {
+            int roomSize = entry.getKey();
+            long sent = entry.getValue().sent.sum();
+            long received = entry.getValue().received.sum();
+            Histogram histogram = entry.getValue().latency.getIntervalHistogram();
+
+            double p50 = histogram.getValueAtPercentile(50) / 1000.0;
+            double p99 = histogram.getValueAtPercentile(99) / 1000.0;
+            double p999 = histogram.getValueAtPercentile(99.9) / 1000.0;
+            double max = histogram.getMaxValue() / 1000.0;
+
+            System.out.printf("%9d %10d %10d %10.1f %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    roomSize, sent, received, sent / seconds, received / seconds, p50, p99, p999, max);
+            csv.append(String.format("%s,%s,%d,%d,%d,%.1f,%.1f,%.3f,%.3f,%.3f,%.3f%n",
+                    LocalDateTime.now(), label, roomSize, sent, received, sent / seconds, received / seconds, p50, p99, p999, max));
+        }
+
+        if (output.getParent() != null) Files.createDirectories(output.getParent());
+        if (Files.notExists(output)) Files.writeString(output, CSV_HEADER + System.lineSeparator());
+        Files.writeString(output, csv, StandardOpenOption.APPEND);
+
+        System.out.printf("Results appended to %s%n", output.toAbsolutePath());
+    }
+
+    private RoomSizeStats stats(int roomSize) {
+        return statsByRoomSize.computeIfAbsent(roomSize, size -> new RoomSizeStats());
+    }
+
+    private static class RoomSizeStats {
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder received = new LongAdder();
+        private final Recorder latency = new Recorder(3); // 여러 수신 스레드에서 동시에 기록
+    }
+}
@@ -0,0 +1,209 @@
+package com.umc.yeongkkeul.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ChatLoadGenerator 클래스
+ * 로컬에서 실행 중인 서버의 /ws에 STOMP 클라이언트를 여러 개 연결해 채팅 경로 전체의 지연 시간과 처리량을 측정합니다.
+ *
+ * 1. 클라이언트마다 Access Token으로 CONNECT하고 /exchange/{exchange}/chat.room.{roomId}를 구독합니다.
+ * 2. --enter=true이면 /pub/chat.enter.{roomId}로 채팅방에 가입합니다.
+ * 3. 클라이언트마다 --rate의 주기로 /pub/chat.message.{roomId}에 보낸 시각이 담긴 메시지를 보냅니다.
+ * 4. 예열 이후 측정 시간 동안 보낸 메시지의 수신 지연 시간을 채팅방 크기별로 기록하고, 결과를 CSV에 이어서 남깁니다.
+ *
+ * 보낸 시각은 이 JVM의 System.nanoTime()이므로 부하 생성기와 서버의 시계가 달라도 지연 시간이 정확합니다.
+ * 같은 CSV에 --label만 바꿔 실행하면 RabbitMQ 릴레이와 embedded 프로필, chat.persistence.shard-count별 결과를 비교할 수 있습니다.
+ */
+public class ChatLoadGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatLoadGenerator.class);
+
+    private static final String CONTENT_PREFIX = "loadtest:"; // 부하 생성기가 보낸 메시지 구분 (뒤에 보낸 시각)
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration SETTLE_TIME = Duration.ofSeconds(3); // 가입 처리, 남은 메시지 수신을 기다리는 시간
+
+    private final LoadTestOptions options;
+    private final ChatLatencyReport report = new ChatLatencyReport();
+    private final LongAdder errors = new LongAdder();
+
+    // 측정 구간 (System.nanoTime 기준), 이 구간에 보낸 메시지만 기록
+    private volatile long measureStart = Long.MAX_VALUE;
+    private volatile long measureEnd = Long.MAX_VALUE;
+
+    public ChatLoadGenerator(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new ChatLoadGenerator(LoadTestOptions.parse(args)).run();
+    }
+
+    public void run() throws Exception {
+
+        List<String> tokens = Files.readAllLines(options.tokensFile()).stream()
+                .map(String::trim)
+                .filter(token -> !token.isEmpty())
+                .toList();
+        if (tokens.size() < options.maxClientsPerRoom()) {
+            throw new IllegalArgumentException("Need at least " + options.maxClientsPerRoom() + " tokens, but found " + tokens.size() + ".");
+        }
+
+        ThreadPoolTaskScheduler heartbeatScheduler = new ThreadPoolTaskScheduler();
+        heartbeatScheduler.setPoolSize(2);
+        heartbeatScheduler.setThreadNamePrefix("loadtest-heartbeat-");
+        heartbeatScheduler.initialize();
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.setTaskScheduler(heartbeatScheduler);
+        stompClient.setDefaultHeartbeat(new long[]{10000, 10000});
+
+        ScheduledExecutorService senders = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors());
+        List<StompSession> sessions = new ArrayList<>(options.totalClients());
+
+        try {
+            // 1, 2. 연결, 구독, 가입 (connect-rate로 속도 제한)
+            long connectIntervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, options.connectRate());
+            for (Map.Entry<Long, Integer> room : options.clientsByRoom().entrySet()) {
+                for (int i = 0; i < room.getValue(); i++) {
+                    long startedAt = System.nanoTime();
+                    sessions.add(connect(stompClient, tokens.get(i), room.getKey(), room.getValue()));
+                    TimeUnit.NANOSECONDS.sleep(connectIntervalNanos - (System.nanoTime() - startedAt));
+                }
+            }
+            log.info("Connected {} clients to {}.", sessions.size(), options.url());
+            Thread.sleep(SETTLE_TIME.toMillis());
+
+            // 3. 전송 시작 (클라이언트마다 시작 시점을 흩어 놓는다)
+            long periodMicros = Math.max(1, (long) (TimeUnit.SECONDS.toMicros(1) / options.rate()));
+            int sessionIndex = 0;
+            for (Map.Entry<Long, Integer> room : options.clientsByRoom().entrySet()) {
+                for (int i = 0; i < room.getValue(); i++) {
+                    StompSession session = sessions.get(sessionIndex++);
+                    Long roomId = room.getKey();
+                    int roomSize = room.getValue();
+                    senders.scheduleAtFixedRate(() -> send(session, roomId, roomSize),
+                            ThreadLocalRandom.current().nextLong(periodMicros), periodMicros, TimeUnit.MICROSECONDS);
+                }
+            }
+
+            // 4. 예열 후 측정
+            log.info("Warming up for {}s.", options.warmup().toSeconds());
+            Thread.sleep(options.warmup().toMillis());
+
+            log.info("Measuring for {}s.", options.duration().toSeconds());
+            measureStart = System.nanoTime();
+            Thread.sleep(options.duration().toMillis());
+            measureEnd = System.nanoTime();
+
+            senders.shutdownNow();
+            Thread.sleep(SETTLE_TIME.toMillis());
+
+            report.write(options.label(), Duration.ofNanos(measureEnd - measureStart), options.output());
+            log.info("Errors: {}", errors.sum());
+        } finally {
+            senders.shutdownNow();
+            sessions.forEach(session -> {
+                if (session.isConnected()) session.disconnect();
+            });
+            heartbeatScheduler.shutdown();
+        }
+    }
+
+    private StompSession connect(WebSocketStompClient stompClient, String token, Long roomId, int roomSize) throws Exception {
+
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+
+        StompSession session = stompClient.connectAsync(options.url(), new WebSocketHttpHeaders(), connectHeaders, new SessionHandler())
+                .get(CONNECT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        session.subscribe("/exchange/" + options.exchange() + "/chat.room." + roomId, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return JsonNode.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                receive(roomSize, (JsonNode) payload);
+            }
+        });
+
+        if (options.enter()) {
+            session.send("/pub/chat.enter." + roomId, Map.of("messageType", "ENTER", "password", options.password()));
+        }
+
+        return session;
+    }
+
+    private void send(StompSession session, Long roomId, int roomSize) {
+
+        long sentAt = System.nanoTime();
+        try {
+            session.send("/pub/chat.message." + roomId, Map.of("messageType", "TEXT", "content", CONTENT_PREFIX + sentAt));
+            if (sentAt >= measureStart && sentAt < measureEnd) report.recordSent(roomSize);
+        } catch (RuntimeException e) {
+            errors.increment();
+        }
+    }
+
+    private void receive(int roomSize, JsonNode message) {
+
+        long receivedAt = System.nanoTime();
+
+        String content = message.path("content").asText("");
+        if (!content.startsWith(CONTENT_PREFIX)) return; // 가입 메시지 등
+
+        long sentAt = Long.parseLong(content.substring(CONTENT_PREFIX.length()));
+        if (sentAt >= measureStart && sentAt < measureEnd) {
+            report.recordReceived(roomSize, receivedAt - sentAt);
+        }
+    }
+
+    private class SessionHandler extends StompSessionHandlerAdapter {
+
+        @Override
+        public void handleException(StompSession session, StompCommand command, StompHeaders headers, byte[] payload, Throwable exception) {
+            errors.increment();
+            log.warn("STOMP error on session {}: {}", session.getSessionId(), exception.getMessage());
+        }
+
+        @Override
+        public void handleTransportError(StompSession session, Throwable exception) {
+            errors.increment();
+            log.warn("Transport error on session {}: {}", session.getSessionId(), exception.getMessage());
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            // ERROR 프레임 (인증 실패, 참여자가 아닌 채팅방 등)
+            errors.increment();
+            log.warn("STOMP ERROR frame: {}", headers.getFirst("message"));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.umc.yeongkkeul.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LoadTestOptions 클래스
+ * 부하 생성기 실행 옵션. (--key=value 형식의 인자)
+ *
+ * --url: STOMP 엔드포인트 (기본 ws://localhost:8080/ws)
+ * --tokens-file: 한 줄에 하나씩 Access Token이 적힌 파일 (필수, 채팅방의 i번째 클라이언트는 i번째 토큰을 사용)
+ * --rooms: 채팅방 ID:클라이언트 수 목록 (예: 101:2,102:10,103:100)
+ * --enter: 측정 전에 chat.enter.{roomId}로 가입할지 여부 (이미 가입된 사용자로 반복 실행할 때는 false)
+ * --password: 채팅방 비밀번호 (가입할 때 사용)
+ * --rate: 클라이언트 하나가 초당 보내는 메시지 수
+ * --warmup-seconds / --duration-seconds: 측정 전 예열 시간 / 측정 시간
+ * --connect-rate: 초당 연결하는 클라이언트 수 (서버의 연결 폭주 방지)
+ * --exchange: 구독할 Exchange 이름 (/exchange/{exchange}/chat.room.{roomId})
+ * --label: 결과 CSV에 남길 실행 이름 (예: relay, embedded, shards-4)
+ * --output: 결과를 이어서 기록할 CSV 파일
+ */
+public record LoadTestOptions(
+        String url,
+        Path tokensFile,
+        Map<Long, Integer> clientsByRoom, // 채팅방 ID -> 클라이언트 수
+        boolean enter,
+        String password,
+        double rate,
+        Duration warmup,
+        Duration duration,
+        int connectRate,
+        String exchange,
+        String label,
+        Path output
+) {
+
+    public static LoadTestOptions parse(String[] args) {
+
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Invalid argument: " + arg + " (expected --key=value)");
+            }
+            int separatorIndex = arg.indexOf('=');
+            values.put(arg.substring(2, separatorIndex), arg.substring(separatorIndex + 1));
+        }
+
+        if (!values.containsKey("tokens-file")) {
+            throw new IllegalArgumentException("--tokens-file is required.");
+        }
+
+        return new LoadTestOptions(
+                values.getOrDefault("url", "ws://localhost:8080/ws"),
+                Path.of(values.get("tokens-file")),
+                parseRooms(values.getOrDefault("rooms", "1:10")),
+                Boolean.parseBoolean(values.getOrDefault("enter", "true")),
+                values.getOrDefault("password", ""),
+                Double.parseDouble(values.getOrDefault("rate", "1")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup-seconds", "10"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration-seconds", "60"))),
+                Integer.parseInt(values.getOrDefault("connect-rate", "200")),
+                values.getOrDefault("exchange", "chat.exchange"),
+                values.getOrDefault("label", "default"),
+                Path.of(values.getOrDefault("output", "build/loadtest/results.csv"))
+        );
+    }
+
+    // "101:2,102:10" -> {101=2, 102=10}
+    private static Map<Long, Integer> parseRooms(String rooms) {
+
+        Map<Long, Integer> clientsByRoom = new LinkedHashMap<>();
+        for (String room : rooms.split(",")) {
+            String[] parts = room.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid room: " + room + " (expected roomId:clients)");
+            }
+            clientsByRoom.put(Long.valueOf(parts[0]), Integer.valueOf(parts[1]));
+        }
+        return clientsByRoom;
+    }
+
+    public int totalClients() {
+        return clientsByRoom.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public int maxClientsPerRoom() {
+        return clientsByRoom.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+}
@@ -42,11 +42,14 @@ public enum ErrorStatus implements BaseErrorCode {
     // CHATROOM
     _CHATROOM_NOT_FOUND(HttpStatus.NOT_FOUND,"CHATROOM4004","채팅방을 찾을 수 없습니다."),
     _CHATROOM_NO_PERMISSION(HttpStatus.FORBIDDEN,"CHATROOM4003","채팅방 비밀번호가 일치 하지 않습니다."),
+    _CHATROOM_BUSY(HttpStatus.SERVICE_UNAVAILABLE,"CHATROOM5003","채팅방 요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요."),
+    _CHATROOM_RATE_LIMITED(HttpStatus.TOO_MANY_REQUESTS,"CHATROOM4029","메시지를 너무 빠르게 보내고 있습니다. 잠시 후 다시 시도해주세요."),
 
     // CHATROOMMEMBERSHIP
     _CHATROOMMEMBERSHIP_NOT_FOUND(HttpStatus.NOT_FOUND, "CHATMEMBERSHIP4004", "채팅방을 찾을 수 없습니다"),
     _CHATROOMMEMBERSHIP_NO_PERMISSION(HttpStatus.FORBIDDEN, "CHATMEMBERSHIP4005", "해당 채팅방의 방장이 아닙니다."),
     _CHATROOMMEMBERSHIP_ALREADY_EXISTS(HttpStatus.FORBIDDEN, "CHATMEMBERSHIP4009", "이미 가입되어 있습니다."),
+    _CHATROOMMEMBERSHIP_NOT_MEMBER(HttpStatus.FORBIDDEN, "CHATMEMBERSHIP4003", "채팅방에 참여하지 않은 사용자입니다."),
 
     // Notification
     _NOTIFICATION_NOT_FOUND(HttpStatus.NOT_FOUND, "NOTIFICATION4004", "해당 사용자의 알림을 찾을 수 없습니다."),
@@ -68,7 +71,8 @@ public enum ErrorStatus implements BaseErrorCode {
     _ITEM_NOT_FOUND(HttpStatus.NOT_FOUND,"ITEM4001", "현재 스킨이 존재하지 않습니다."),
 
     // Chat 서랍
-    _CHAT_IMAGE_NOT_FOUND(HttpStatus.NOT_FOUND, "CHATIMAGE4001", "채팅방 이미지를 찾을 수 없습니다.");
+    _CHAT_IMAGE_NOT_FOUND(HttpStatus.NOT_FOUND, "CHATIMAGE4001", "채팅방 이미지를 찾을 수 없습니다."),
+    _CHAT_IMAGE_RANGE_NOT_SATISFIABLE(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, "CHATIMAGE4016", "요청한 범위의 이미지를 다운로드할 수 없습니다.");
 
     private final HttpStatus httpStatus;
     private final String code;
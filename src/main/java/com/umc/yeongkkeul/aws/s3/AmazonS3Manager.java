@@ -1,20 +1,23 @@
 package com.umc.yeongkkeul.aws.s3;
 
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectInputStream;
-import com.amazonaws.util.IOUtils;
 import com.umc.yeongkkeul.config.AmazonConfig;
 import com.umc.yeongkkeul.domain.common.Uuid;
 import com.umc.yeongkkeul.repository.UuidRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpRange;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 
 @Slf4j
 @Component
@@ -42,20 +45,40 @@ public class AmazonS3Manager{
     }
 
     /**
-     * S3에서 파일을 다운로드하며, 파일 데이터와 함께 원본의 contentType를 반환합니다.
+     * S3 객체를 메모리에 모두 읽지 않고 스트림으로 엽니다.
+     * ETag가 ifNoneMatch와 같으면 본문 없이 notModified 응답을, range가 있으면 해당 범위만 반환합니다.
+     *
+     * @param ifNoneMatch 클라이언트가 가진 ETag, 없으면 null
+     * @param range 다운로드할 바이트 범위, 전체를 받으면 null
+     * @throws IllegalArgumentException 파일 크기를 벗어난 범위를 요청한 경우
      */
-    public S3DownloadResponse downloadFileWithMetadata(String keyName) {
-        try {
-            S3Object s3Object = amazonS3.getObject(amazonConfig.getBucket(), keyName);
-            S3ObjectInputStream inputStream = s3Object.getObjectContent();
-            byte[] data = IOUtils.toByteArray(inputStream);
-            // S3 객체의 메타데이터에서 콘텐츠 타입을 가져옵니다.
-            String contentType = s3Object.getObjectMetadata().getContentType();
-            return new S3DownloadResponse(data, contentType);
-        } catch (IOException e) {
-            log.error("Error downloading file from S3 with key {}: {}", keyName, e.getMessage());
-            throw new RuntimeException("Failed to download file from S3", e);
+    public S3StreamResponse openFileStream(String keyName, String ifNoneMatch, HttpRange range) {
+
+        GetObjectRequest request = new GetObjectRequest(amazonConfig.getBucket(), keyName);
+        if (ifNoneMatch != null) {
+            request.setNonmatchingETagConstraints(List.of(ifNoneMatch));
+        }
+
+        if (range != null) {
+            // 범위의 시작/끝 위치를 계산하려면 전체 크기가 필요 -> 메타데이터만 먼저 조회
+            ObjectMetadata metadata = amazonS3.getObjectMetadata(amazonConfig.getBucket(), keyName);
+            if (ifNoneMatch != null && ifNoneMatch.equals(metadata.getETag())) {
+                return S3StreamResponse.notModified(metadata.getETag());
+            }
+
+            long instanceLength = metadata.getContentLength();
+            request.setRange(range.getRangeStart(instanceLength), range.getRangeEnd(instanceLength));
         }
+
+        // 조건(If-None-Match)을 만족하지 않으면 null을 반환
+        S3Object s3Object = amazonS3.getObject(request);
+        if (s3Object == null) {
+            return S3StreamResponse.notModified(ifNoneMatch);
+        }
+
+        ObjectMetadata metadata = s3Object.getObjectMetadata();
+        return new S3StreamResponse(s3Object, metadata.getContentType(), metadata.getContentLength(), metadata.getInstanceLength(), metadata.getETag(),
+                range == null ? null : metadata.getContentRange());
     }
 
     public String getFileUrl(String keyName) {
@@ -83,23 +106,67 @@ public class AmazonS3Manager{
     }
 
     /**
-     * S3 다운로드 결과를 담는 DTO. -> 추후 다운로드 api에서 메타데이터 넣는 활용 필요해서 추가함
+     * S3 스트림 다운로드 결과를 담는 DTO.
+     * 본문은 writeTo로 응답 스트림에 바로 복사하며, 복사가 끝나거나 실패하면 S3 연결을 닫습니다.
      */
-    public static class S3DownloadResponse {
-        private final byte[] data;
+    public static class S3StreamResponse {
+        private final S3Object s3Object; // 304(notModified)이면 null
         private final String contentType;
+        private final long contentLength;
+        private final long instanceLength; // 범위 요청이어도 파일 전체 크기
+        private final String eTag;
+        private final Long[] contentRange; // 범위 요청일 때 [시작, 끝], 전체 다운로드면 null
 
-        public S3DownloadResponse(byte[] data, String contentType) {
-            this.data = data;
+        public S3StreamResponse(S3Object s3Object, String contentType, long contentLength, long instanceLength, String eTag, Long[] contentRange) {
+            this.s3Object = s3Object;
             this.contentType = contentType;
+            this.contentLength = contentLength;
+            this.instanceLength = instanceLength;
+            this.eTag = eTag;
+            this.contentRange = contentRange;
+        }
+
+        public static S3StreamResponse notModified(String eTag) {
+            return new S3StreamResponse(null, null, 0, 0, eTag, null);
+        }
+
+        public boolean isNotModified() {
+            return s3Object == null;
+        }
+
+        public boolean isPartial() {
+            return contentRange != null;
         }
 
-        public byte[] getData() {
-            return data;
+        public void writeTo(OutputStream outputStream) throws IOException {
+            S3ObjectInputStream inputStream = s3Object.getObjectContent();
+            try (S3Object object = s3Object) {
+                inputStream.transferTo(outputStream); // 고정 크기 버퍼로 복사
+            } catch (IOException e) {
+                // 남은 본문을 끝까지 읽지 않고 HTTP 연결을 끊는다.
+                inputStream.abort();
+                throw e;
+            }
         }
 
         public String getContentType() {
             return contentType;
         }
+
+        public long getContentLength() {
+            return contentLength;
+        }
+
+        public long getInstanceLength() {
+            return instanceLength;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public Long[] getContentRange() {
+            return contentRange;
+        }
     }
-}
\ No newline at end of file
+}
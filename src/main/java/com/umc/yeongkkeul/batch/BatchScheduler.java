@@ -13,10 +13,7 @@ import org.springframework.stereotype.Component;
 public class BatchScheduler {
 
     private final JobLauncher jobLauncher;
-    private final Job updateUserScoreJob;
-    private final Job updateChatRoomScoreJob;
-    private final Job updateChatRoomJob;
-    private final Job updateRewardNotificationJob;
+    private final Job nightlyBatchJob; // 지출 집계 -> (사용자/채팅방 점수 | 채팅방 통계) -> 랭킹 -> 보상
 
     @Scheduled(cron = "0 0 0 * * ?")
     public void runBatchJobs() throws Exception{
@@ -24,10 +21,6 @@ public class BatchScheduler {
                 .addLong("timestamp",System.currentTimeMillis())
                 .toJobParameters();
 
-        jobLauncher.run(updateUserScoreJob,jobParameters);
-        jobLauncher.run(updateChatRoomScoreJob,jobParameters);
-        jobLauncher.run(updateChatRoomJob,jobParameters);
-        jobLauncher.run(updateRewardNotificationJob, jobParameters);
-
+        jobLauncher.run(nightlyBatchJob, jobParameters);
     }
 }
@@ -0,0 +1,72 @@
+package com.umc.yeongkkeul.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * BatchTimingListener 클래스
+ * 배치 Step(파티션 포함)의 처리 시간과 처리 건수를 남기는 리스너.
+ *
+ * Worker Step에 등록하면 파티션이 끝날 때마다 ID 범위, 읽기/쓰기 건수, 걸린 시간을 한 줄씩 남기고,
+ * Job에 등록하면 Job이 끝난 뒤 모든 Step과 파티션의 시간을 시작 순서대로 모아 리포트로 남깁니다.
+ * 가장 느린 파티션이 전체 시간을 결정하므로, 파티션 사이의 시간 차이로 grid-size와 pool-size를 조정합니다.
+ */
+@Slf4j
+@Component
+public class BatchTimingListener implements StepExecutionListener, JobExecutionListener {
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+
+        // afterStep 시점에는 endTime이 아직 없으므로 현재 시간 기준
+        log.info("[batch] {} {} ids={} read={} write={} skip={} {}ms",
+                stepExecution.getStepName(), stepExecution.getStatus(), idRange(stepExecution),
+                stepExecution.getReadCount(), stepExecution.getWriteCount(), stepExecution.getSkipCount(),
+                millisBetween(stepExecution.getStartTime(), LocalDateTime.now()));
+
+        return stepExecution.getExitStatus();
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+
+        List<StepExecution> stepExecutions = jobExecution.getStepExecutions().stream()
+                .sorted(Comparator.comparing(StepExecution::getStartTime, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+
+        StringBuilder report = new StringBuilder();
+        for (StepExecution stepExecution : stepExecutions) {
+            report.append(String.format("%n  %-55s %-10s ids=%-15s read=%-8d write=%-8d %8dms",
+                    stepExecution.getStepName(), stepExecution.getStatus(), idRange(stepExecution),
+                    stepExecution.getReadCount(), stepExecution.getWriteCount(),
+                    millisBetween(stepExecution.getStartTime(), stepExecution.getEndTime())));
+        }
+
+        log.info("[batch] {} {} in {}ms{}", jobExecution.getJobInstance().getJobName(), jobExecution.getStatus(),
+                millisBetween(jobExecution.getStartTime(), jobExecution.getEndTime()), report);
+    }
+
+    // 파티션이 아닌 Step은 "-"
+    private String idRange(StepExecution stepExecution) {
+
+        if (!stepExecution.getExecutionContext().containsKey(IdRangePartitioner.MIN_ID)) return "-";
+        return stepExecution.getExecutionContext().getLong(IdRangePartitioner.MIN_ID) + "~"
+                + stepExecution.getExecutionContext().getLong(IdRangePartitioner.MAX_ID);
+    }
+
+    private long millisBetween(LocalDateTime start, LocalDateTime end) {
+
+        if (start == null) return 0;
+        return Duration.between(start, (end == null) ? LocalDateTime.now() : end).toMillis();
+    }
+}
@@ -1,95 +1,103 @@
 package com.umc.yeongkkeul.batch;
 
 import com.umc.yeongkkeul.domain.ChatRoom;
-import com.umc.yeongkkeul.domain.enums.AgeGroup;
-import com.umc.yeongkkeul.repository.ChatRoomMembershipRepository;
-import com.umc.yeongkkeul.repository.ChatRoomRepository;
-import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
-import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
-import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.ItemProcessor;
-import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.ItemWriter;
-import org.springframework.batch.item.database.builder.JpaItemWriterBuilder;
+import org.springframework.batch.item.database.JpaPagingItemReader;
 import org.springframework.batch.item.database.builder.JpaPagingItemReaderBuilder;
-import org.springframework.batch.item.support.CompositeItemProcessor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import java.sql.Date;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
 
 @Configuration
 @RequiredArgsConstructor
 @EnableBatchProcessing
 public class ChatRoomBatchConfig {
 
+    private static final String SELECT_MEMBER_SPEND_SUMMARY =
+            "SELECT COALESCE(SUM(CASE WHEN COALESCE(d.total_expenditure, 0) <= ? THEN 1 ELSE 0 END), 0) AS achieved_count, " +
+            "COALESCE(SUM(d.total_expenditure), 0) AS sum_amount " +
+            "FROM chat_room_membership m LEFT JOIN daily_user_spend d ON d.user_id = m.user_id AND d.day = ? " +
+            "WHERE m.chat_room_id = ?";
+    private static final String UPDATE_EXPENSE_STATISTICS = "UPDATE chat_room SET achieved_count = ?, average_expense = ? WHERE id = ?";
+
     private final JobRepository jobRepository;
-    private final ChatRoomMembershipRepository chatRoomMembershipRepository;
-    private final ChatRoomRepository chatRoomRepository;
     private final EntityManagerFactory entityManagerFactory;
-    private final EntityManager entityManager;
     private final PlatformTransactionManager transactionManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskExecutor batchTaskExecutor;
+    private final BatchTimingListener batchTimingListener;
+
+    @Value("${batch.grid-size}")
+    private int gridSize;
+
+    @Value("${batch.chunk-size}")
+    private int chunkSize;
 
-    // ChatRoom의 목표 달성 챌린저 인원, 지출 평균, 랭킹 갱신
+    // ChatRoom의 목표 달성 챌린저 인원, 지출 평균 갱신 (랭킹 갱신은 nightlyBatchJob에서 이어서 실행)
+    // 채팅방 ID 범위로 나눈 파티션을 batchTaskExecutor에서 동시에 처리
     @Bean
-    public Job updateChatRoomJob() {
-        return new JobBuilder("updateChatRoomJob", jobRepository)
-                .start(updateChatRoomStep())
+    public Step updateChatRoomPartitionStep() {
+        return new StepBuilder("updateChatRoomPartitionStep", jobRepository)
+                .partitioner("updateChatRoomStep", new IdRangePartitioner(jdbcTemplate, "chat_room"))
+                .step(updateChatRoomStep())
+                .gridSize(gridSize)
+                .taskExecutor(batchTaskExecutor)
                 .build();
     }
 
     @Bean
     public Step updateChatRoomStep() {
         return new StepBuilder("updateChatRoomStep", jobRepository)
-                .<ChatRoom, ChatRoom>chunk(10, transactionManager)
-                .reader(chatRoomItemReader())
-                .processor(chatRoomCompositeProcessor())
+                .<ChatRoom, ChatRoom>chunk(chunkSize, transactionManager)
+                .reader(chatRoomItemReader(null, null))
+                .processor(expenseProcessor())
                 .writer(chatRoomItemWriter())
+                .listener(batchTimingListener)
                 .build();
     }
 
+    // 파티션마다 자신의 ID 범위만 읽는 Reader를 새로 생성
     @Bean
-    public ItemReader<ChatRoom> chatRoomItemReader() {
+    @StepScope
+    public JpaPagingItemReader<ChatRoom> chatRoomItemReader(
+            @Value("#{stepExecutionContext['minId']}") Long minId,
+            @Value("#{stepExecutionContext['maxId']}") Long maxId
+    ) {
         return new JpaPagingItemReaderBuilder<ChatRoom>()
                 .name("chatRoomItemReader")
                 .entityManagerFactory(entityManagerFactory)
-                .queryString("SELECT c FROM ChatRoom c ORDER BY c.id ASC")
-                .pageSize(10)
+                .queryString("SELECT c FROM ChatRoom c WHERE c.id BETWEEN :minId AND :maxId ORDER BY c.id ASC")
+                .parameterValues(Map.of("minId", minId, "maxId", maxId))
+                .pageSize(chunkSize)
+                .transacted(false) // 읽은 엔티티를 분리해 Reader의 EntityManager가 변경된 채팅방 전체를 flush하지 않도록 함
                 .build();
     }
 
     @Bean
     public ItemProcessor<ChatRoom, ChatRoom> expenseProcessor() { // 목표 달성 인원, 지출 평균 계산
         return chatRoom -> {
-            List<Long> userIdList = chatRoomMembershipRepository.findUserIdByChatroomId(chatRoom.getId());
-
-            int achievedCount = 0; // 하루 목표 달성한 유저 수
-            int sumAmount = 0; // 지출 통계를 위한 합계
+            // 참여자별 어제 지출은 updateDailyUserSpendStep이 집계한 daily_user_spend에서 조인 (지출이 없으면 0원)
             LocalDate yesterday = LocalDate.now().minusDays(1);
-            for (Long userId : userIdList) {
-                // 어제 지출 총합 계산
-                Long totalExpenditureLong = (Long) entityManager.createQuery(
-                                "SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.user.id = :userId AND e.day = :yesterday")
-                        .setParameter("userId", userId)
-                        .setParameter("yesterday", yesterday)
-                        .getSingleResult();
-
-                int totalExpenditure = totalExpenditureLong.intValue();
-
-                if (totalExpenditure <= chatRoom.getDailySpendingGoalFilter()) {
-                    achievedCount++;
-                }
-                sumAmount += totalExpenditure; // 유저들의 하루 지출
-            }
+            Map<String, Object> spendSummary = jdbcTemplate.queryForMap(SELECT_MEMBER_SPEND_SUMMARY,
+                    chatRoom.getDailySpendingGoalFilter(), Date.valueOf(yesterday), chatRoom.getId());
+
+            int achievedCount = ((Number) spendSummary.get("achieved_count")).intValue(); // 하루 목표 달성한 유저 수
+            int sumAmount = ((Number) spendSummary.get("sum_amount")).intValue(); // 지출 통계를 위한 합계
 
             // 채팅방 총 참여자 수
 //            int chatRoomUserCount = chatRoomMembershipRepository.countByChatroomId(chatRoom.getId());
@@ -105,61 +113,25 @@ public class ChatRoomBatchConfig {
         };
     }
 
+    /**
+     * 모든 채팅방의 지출 통계를 저장한 뒤, 채팅방 랭킹(상위 백분율)을 한 번에 계산합니다.
+     */
     @Bean
-    public ItemProcessor<ChatRoom, ChatRoom> rankingProcessor() { // 백분위 계산 로직
-        return chatRoom -> {
-            if (chatRoom.getTotalScore() == null) { // totalScore가 null인 경우(5명 이하인 채팅방은 null)
-                return null;
-            }
-
-            AgeGroup ageFilter = chatRoom.getAgeGroupFilter(); // age 필터
-            com.umc.yeongkkeul.domain.enums.Job jobFilter = chatRoom.getJobFilter(); // job 필터
-
-            // job, age 기준으로 필터링 (totalScore null 아닌 방만 랭킹 집계)
-            boolean hasAgeFilter = ageFilter!=null && ageFilter!=AgeGroup.UNDECIDED;
-            boolean hasJobFilter = jobFilter!=null && jobFilter!=com.umc.yeongkkeul.domain.enums.Job.UNDECIDED;
-            List<ChatRoom> chatRoomList;
-            if (hasAgeFilter && hasJobFilter) { // age, job 대상
-                chatRoomList = chatRoomRepository.findAllByAgeGroupFilterAndJobFilterOrderByTotalScoreDesc(ageFilter, jobFilter);
-            } else if (hasAgeFilter) { // age 대상
-                chatRoomList = chatRoomRepository.findAllByAgeGroupFilterOrderByTotalScoreDesc(ageFilter);
-            } else if (hasJobFilter) { // job 대상
-                chatRoomList = chatRoomRepository.findAllByJobFilterOrderByTotalScoreDesc(jobFilter);
-            } else { // 필터 없을 때는 전체 대상
-                chatRoomList = chatRoomRepository.findAllByOrderByTotalScoreDesc();
-            }
-
-            int rank = 1;
-            for (int i = 0; i < chatRoomList.size(); i++) {
-                if (chatRoomList.get(i).getId().equals(chatRoom.getId())) {
-                    rank = i + 1;
-                    break;
-                }
-            }
-
-            int topRate = (int) Math.round(((double) rank / chatRoomList.size()) * 100);
-            chatRoom.setRanking(topRate);
-
-            return chatRoom;
-        };
-    }
-
-    @Bean
-    public CompositeItemProcessor<ChatRoom, ChatRoom> chatRoomCompositeProcessor() {
-        List<ItemProcessor<ChatRoom, ChatRoom>> processors = new ArrayList<>();
-        processors.add(expenseProcessor());  // 목표 달성 인원 및 지출 평균 계산
-        processors.add(rankingProcessor());  // 백분위 계산
-
-        CompositeItemProcessor<ChatRoom, ChatRoom> processor = new CompositeItemProcessor<>();
-        processor.setDelegates(processors);
-
-        return processor;
+    public Step updateChatRoomRankingStep() {
+        return new StepBuilder("updateChatRoomRankingStep", jobRepository)
+                .tasklet(new ChatRoomRankingTasklet(jdbcTemplate), transactionManager)
+                .listener(batchTimingListener)
+                .build();
     }
 
+    // 같은 시간에 총점을 저장하는 updateChatRoomScoreStep과 덮어쓰지 않도록 달성 인원, 지출 평균 컬럼만 UPDATE
     @Bean
     public ItemWriter<ChatRoom> chatRoomItemWriter() {
-        return new JpaItemWriterBuilder<ChatRoom>()
-                .entityManagerFactory(entityManagerFactory)
-                .build();
+        return chatRooms -> jdbcTemplate.batchUpdate(UPDATE_EXPENSE_STATISTICS, chatRooms.getItems(), chatRooms.size(),
+                (ps, chatRoom) -> {
+                    ps.setInt(1, chatRoom.getAchievedCount());
+                    ps.setInt(2, chatRoom.getAverageExpense());
+                    ps.setLong(3, chatRoom.getId());
+                });
     }
 }
@@ -0,0 +1,103 @@
+package com.umc.yeongkkeul.batch;
+
+import com.umc.yeongkkeul.domain.enums.AgeGroup;
+import com.umc.yeongkkeul.domain.enums.Job;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ChatRoomRankingTasklet 클래스
+ * 모든 채팅방의 랭킹(상위 백분율)을 한 번에 계산해 일괄 UPDATE 하는 Tasklet.
+ *
+ * 채팅방의 랭킹은 같은 필터를 가진 채팅방(코호트) 중 totalScore 순위로 계산합니다.
+ * - 나이, 직업 필터가 모두 있으면: 나이와 직업이 모두 같은 채팅방
+ * - 나이 필터만 있으면: 나이가 같은 채팅방 / 직업 필터만 있으면: 직업이 같은 채팅방
+ * - 필터가 없으면: 전체 채팅방
+ *
+ * totalScore가 있는 채팅방을 점수 순으로 한 번만 읽고, 각 채팅방이 속한 코호트(최대 4개)의 순위를 한 번의 순회로 구합니다.
+ * (채팅방마다 코호트 전체를 다시 조회하던 O(n²) 방식과 JOIN으로 인한 중복 행을 대체)
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ChatRoomRankingTasklet implements Tasklet {
+
+    private static final String SELECT_SCORED_CHAT_ROOMS =
+            "SELECT id, age_group_filter, job_filter FROM chat_room " +
+            "WHERE total_score IS NOT NULL ORDER BY total_score DESC, id ASC";
+    private static final String UPDATE_RANKING = "UPDATE chat_room SET ranking = ? WHERE id = ?";
+    private static final int UPDATE_BATCH_SIZE = 1000;
+    private static final String ANY = "*";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private record ScoredChatRoom(long id, String ageGroupFilter, String jobFilter) {
+
+        // 이 채팅방이 속한 코호트 키 ("나이|직업", "나이|*", "*|직업", "*|*")
+        List<String> cohortKeys() {
+            List<String> cohortKeys = new ArrayList<>(4);
+            if (ageGroupFilter != null && jobFilter != null) cohortKeys.add(ageGroupFilter + "|" + jobFilter);
+            if (ageGroupFilter != null) cohortKeys.add(ageGroupFilter + "|" + ANY);
+            if (jobFilter != null) cohortKeys.add(ANY + "|" + jobFilter);
+            cohortKeys.add(ANY + "|" + ANY);
+            return cohortKeys;
+        }
+
+        // 랭킹을 매길 코호트 (UNDECIDED는 필터가 없는 것으로 처리)
+        String rankingCohortKey() {
+            boolean hasAgeFilter = ageGroupFilter != null && !AgeGroup.UNDECIDED.name().equals(ageGroupFilter);
+            boolean hasJobFilter = jobFilter != null && !Job.UNDECIDED.name().equals(jobFilter);
+            return (hasAgeFilter ? ageGroupFilter : ANY) + "|" + (hasJobFilter ? jobFilter : ANY);
+        }
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+
+        List<ScoredChatRoom> chatRooms = jdbcTemplate.query(SELECT_SCORED_CHAT_ROOMS, (rs, rowNum) ->
+                new ScoredChatRoom(rs.getLong("id"), rs.getString("age_group_filter"), rs.getString("job_filter")));
+
+        // 1. 코호트별 채팅방 수
+        Map<String, Integer> cohortSizes = new HashMap<>();
+        for (ScoredChatRoom chatRoom : chatRooms) {
+            for (String cohortKey : chatRoom.cohortKeys()) {
+                cohortSizes.merge(cohortKey, 1, Integer::sum);
+            }
+        }
+
+        // 2. 점수 순으로 순회하며 코호트 안에서의 순위 -> 상위 백분율
+        Map<String, Integer> cohortPositions = new HashMap<>();
+        List<Object[]> updates = new ArrayList<>(chatRooms.size());
+        for (ScoredChatRoom chatRoom : chatRooms) {
+            for (String cohortKey : chatRoom.cohortKeys()) {
+                cohortPositions.merge(cohortKey, 1, Integer::sum);
+            }
+
+            String rankingCohortKey = chatRoom.rankingCohortKey();
+            int rank = cohortPositions.get(rankingCohortKey);
+            int topRate = (int) Math.round(((double) rank / cohortSizes.get(rankingCohortKey)) * 100);
+
+            updates.add(new Object[]{topRate, chatRoom.id()});
+        }
+
+        // 3. 일괄 UPDATE
+        jdbcTemplate.batchUpdate(UPDATE_RANKING, updates, UPDATE_BATCH_SIZE, (ps, update) -> {
+            ps.setInt(1, (Integer) update[0]);
+            ps.setLong(2, (Long) update[1]);
+        });
+
+        contribution.incrementWriteCount(updates.size());
+        log.info("Updated rankings of {} chat rooms in {} cohorts.", updates.size(), cohortSizes.size());
+
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -5,58 +5,83 @@ import com.umc.yeongkkeul.domain.mapping.ChatRoomMembership;
 import com.umc.yeongkkeul.repository.ChatRoomMembershipRepository;
 import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
-import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
-import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.ItemProcessor;
-import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.ItemWriter;
-import org.springframework.batch.item.database.builder.JpaItemWriterBuilder;
+import org.springframework.batch.item.database.JpaPagingItemReader;
 import org.springframework.batch.item.database.builder.JpaPagingItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @RequiredArgsConstructor
 @EnableBatchProcessing
 public class ChatRoomScoreBatchConfig {
 
+    private static final String UPDATE_TOTAL_SCORE = "UPDATE chat_room SET total_score = ? WHERE id = ?";
+
     private final JobRepository jobRepository;
     private final ChatRoomMembershipRepository chatRoomMembershipRepository;
     private final EntityManagerFactory entityManagerFactory;
     private final PlatformTransactionManager transactionManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskExecutor batchTaskExecutor;
+    private final BatchTimingListener batchTimingListener;
+
+    @Value("${batch.grid-size}")
+    private int gridSize;
+
+    @Value("${batch.chunk-size}")
+    private int chunkSize;
 
     // ChatRoomMembership 엔티티에서 chat_room_id 같은 사람들끼리의 score를 통해 ChatRoom의 totalScore 계산
+    // 채팅방 ID 범위로 나눈 파티션을 batchTaskExecutor에서 동시에 처리
     @Bean
-    public Job updateChatRoomScoreJob() {
-        return new JobBuilder("updateChatRoomScoreJob", jobRepository)
-                .start(updateChatRoomScoreStep())
+    public Step updateChatRoomScorePartitionStep() {
+        return new StepBuilder("updateChatRoomScorePartitionStep", jobRepository)
+                .partitioner("updateChatRoomScoreStep", new IdRangePartitioner(jdbcTemplate, "chat_room"))
+                .step(updateChatRoomScoreStep())
+                .gridSize(gridSize)
+                .taskExecutor(batchTaskExecutor)
                 .build();
     }
 
     @Bean
     public Step updateChatRoomScoreStep() {
         return new StepBuilder("updateChatRoomScoreStep", jobRepository)
-                .<ChatRoom, ChatRoom>chunk(10, transactionManager)
-                .reader(chatRoomScoreItemReader())
+                .<ChatRoom, ChatRoom>chunk(chunkSize, transactionManager)
+                .reader(chatRoomScoreItemReader(null, null))
                 .processor(chatRoomScoreItemProcessor())
                 .writer(chatRoomScoreItemWriter())
+                .listener(batchTimingListener)
                 .build();
     }
 
+    // 파티션마다 자신의 ID 범위만 읽는 Reader를 새로 생성
     @Bean
-    public ItemReader<ChatRoom> chatRoomScoreItemReader() {
+    @StepScope
+    public JpaPagingItemReader<ChatRoom> chatRoomScoreItemReader(
+            @Value("#{stepExecutionContext['minId']}") Long minId,
+            @Value("#{stepExecutionContext['maxId']}") Long maxId
+    ) {
         return new JpaPagingItemReaderBuilder<ChatRoom>()
                 .name("chatRoomScoreItemReader")
                 .entityManagerFactory(entityManagerFactory)
-                .queryString("SELECT c FROM ChatRoom c ORDER BY c.id ASC")
-                .pageSize(10)
+                .queryString("SELECT c FROM ChatRoom c WHERE c.id BETWEEN :minId AND :maxId ORDER BY c.id ASC")
+                .parameterValues(Map.of("minId", minId, "maxId", maxId))
+                .pageSize(chunkSize)
+                .transacted(false) // 읽은 엔티티를 분리해 Reader의 EntityManager가 변경된 채팅방 전체를 flush하지 않도록 함
                 .build();
     }
 
@@ -105,10 +130,12 @@ public class ChatRoomScoreBatchConfig {
     }
 
     @Bean
-    public ItemWriter<ChatRoom> chatRoomScoreItemWriter() { // 최종 점수 저장
-        return new JpaItemWriterBuilder<ChatRoom>()
-                .entityManagerFactory(entityManagerFactory)
-                .build();
+    public ItemWriter<ChatRoom> chatRoomScoreItemWriter() { // 최종 점수 저장 (같은 시간에 실행되는 updateChatRoomStep과 덮어쓰지 않도록 total_score만 UPDATE)
+        return chatRooms -> jdbcTemplate.batchUpdate(UPDATE_TOTAL_SCORE, chatRooms.getItems(), chatRooms.size(),
+                (ps, chatRoom) -> {
+                    ps.setObject(1, chatRoom.getTotalScore());
+                    ps.setLong(2, chatRoom.getId());
+                });
     }
 
 }
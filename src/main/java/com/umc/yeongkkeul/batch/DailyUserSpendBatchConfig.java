@@ -0,0 +1,31 @@
+package com.umc.yeongkkeul.batch;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@RequiredArgsConstructor
+@EnableBatchProcessing
+public class DailyUserSpendBatchConfig {
+
+    private final JobRepository jobRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final BatchTimingListener batchTimingListener;
+
+    // 어제 지출을 사용자별로 집계 -> 이후 사용자 점수, 채팅방 배치가 daily_user_spend를 조인
+    @Bean
+    public Step updateDailyUserSpendStep() {
+        return new StepBuilder("updateDailyUserSpendStep", jobRepository)
+                .tasklet(new DailyUserSpendTasklet(jdbcTemplate), transactionManager)
+                .listener(batchTimingListener)
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.umc.yeongkkeul.batch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * DailyUserSpendTasklet 클래스
+ * 어제의 Expense를 사용자별로 한 번만 집계해 daily_user_spend에 저장하는 Tasklet.
+ *
+ * INSERT ... SELECT ... GROUP BY 한 번으로 처리하고, 같은 날짜를 다시 실행하면 값을 덮어씁니다.
+ * 지출이 없는 사용자는 행이 없으므로 조회하는 쪽에서 LEFT JOIN 후 0으로 처리합니다.
+ * 보관 기간이 지난 집계는 함께 삭제합니다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DailyUserSpendTasklet implements Tasklet {
+
+    private static final String UPSERT_DAILY_USER_SPEND =
+            "INSERT INTO daily_user_spend (user_id, day, total_expenditure, no_spending_count, category_count) " +
+            "SELECT e.user_id, e.day, SUM(e.amount), SUM(CASE WHEN e.is_no_spending THEN 1 ELSE 0 END), COUNT(DISTINCT e.category_id) " +
+            "FROM expense e WHERE e.day = ? GROUP BY e.user_id, e.day " +
+            "ON DUPLICATE KEY UPDATE total_expenditure = VALUES(total_expenditure), " +
+            "no_spending_count = VALUES(no_spending_count), category_count = VALUES(category_count)";
+    private static final String DELETE_REMOVED_EXPENSES =
+            "DELETE d FROM daily_user_spend d " +
+            "WHERE d.day = ? AND NOT EXISTS (SELECT 1 FROM expense e WHERE e.user_id = d.user_id AND e.day = d.day)";
+    private static final String DELETE_EXPIRED = "DELETE FROM daily_user_spend WHERE day < ?";
+    private static final int RETENTION_DAYS = 30;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+
+        LocalDate day = LocalDate.now().minusDays(1);
+        Date sqlDay = Date.valueOf(day);
+
+        int upserted = jdbcTemplate.update(UPSERT_DAILY_USER_SPEND, sqlDay);
+        jdbcTemplate.update(DELETE_REMOVED_EXPENSES, sqlDay); // 재실행 시 지출 기록이 모두 지워진 사용자
+        int expired = jdbcTemplate.update(DELETE_EXPIRED, Date.valueOf(day.minusDays(RETENTION_DAYS)));
+
+        contribution.incrementWriteCount(upserted);
+        log.info("Aggregated daily spend of {} for {} rows, removed {} expired rows.", day, upserted, expired);
+
+        return RepeatStatus.FINISHED;
+    }
+}
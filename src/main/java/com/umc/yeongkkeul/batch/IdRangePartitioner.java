@@ -0,0 +1,58 @@
+package com.umc.yeongkkeul.batch;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * IdRangePartitioner 클래스
+ * 테이블의 최소~최대 ID를 gridSize개의 연속된 범위로 나누는 Partitioner.
+ *
+ * 각 파티션의 ExecutionContext에 minId, maxId(포함)를 넣고,
+ * Worker Step의 @StepScope Reader가 #{stepExecutionContext['minId']}, ['maxId']로 자신의 범위만 읽습니다.
+ * 범위가 겹치지 않으므로 파티션끼리 같은 행을 읽거나 쓰지 않습니다.
+ */
+@RequiredArgsConstructor
+public class IdRangePartitioner implements Partitioner {
+
+    public static final String MIN_ID = "minId";
+    public static final String MAX_ID = "maxId";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String tableName;
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+
+        Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM " + tableName);
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+
+        // 빈 테이블이면 아무것도 읽지 않는 파티션 하나
+        if (bounds.get("min_id") == null) {
+            partitions.put("partition0", range(1L, 0L));
+            return partitions;
+        }
+
+        long minId = ((Number) bounds.get("min_id")).longValue();
+        long maxId = ((Number) bounds.get("max_id")).longValue();
+        long rangeSize = Math.max(1, (maxId - minId + 1 + gridSize - 1) / Math.max(1, gridSize));
+
+        int number = 0;
+        for (long start = minId; start <= maxId; start += rangeSize) {
+            partitions.put("partition" + number++, range(start, Math.min(maxId, start + rangeSize - 1)));
+        }
+        return partitions;
+    }
+
+    private ExecutionContext range(long minId, long maxId) {
+
+        ExecutionContext executionContext = new ExecutionContext();
+        executionContext.putLong(MIN_ID, minId);
+        executionContext.putLong(MAX_ID, maxId);
+        return executionContext;
+    }
+}
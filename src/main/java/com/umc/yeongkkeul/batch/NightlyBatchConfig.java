@@ -0,0 +1,74 @@
+package com.umc.yeongkkeul.batch;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.core.job.builder.FlowBuilder;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.job.flow.Flow;
+import org.springframework.batch.core.job.flow.support.SimpleFlow;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * NightlyBatchConfig 클래스
+ * 매일 실행하는 배치 Step을 의존 관계에 따라 하나의 Job으로 묶는 구성 클래스.
+ * 각 배치 구성 클래스는 Step만 정의하고, 실행되는 Job은 nightlyBatchJob 하나뿐입니다. (Step을 따로 실행하는 Job을 두지 않음)
+ *
+ * updateDailyUserSpendStep (사용자별 어제 지출 집계)
+ *   ├─ userScoreFlow: updateUserScorePartitionStep -> updateChatRoomScorePartitionStep (사용자 점수 -> 채팅방 점수)
+ *   └─ chatRoomStatsFlow: updateChatRoomPartitionStep (채팅방 목표 달성 인원, 지출 평균)
+ * updateChatRoomRankingStep (채팅방 점수 필요)
+ * updateRewardNotificationStep (랭킹, 달성 인원, 사용자 점수 필요)
+ *
+ * 서로 의존하지 않는 두 Flow는 동시에 실행하고, 각 파티션 Step은 batchTaskExecutor에서 ID 범위별로 나누어 처리합니다.
+ * Flow 스레드는 파티션이 끝날 때까지 기다리기만 하므로 batchTaskExecutor와 따로 두어, 파티션이 Flow 때문에 스레드를 얻지 못하는 일이 없게 합니다.
+ */
+@Configuration
+@RequiredArgsConstructor
+@EnableBatchProcessing
+public class NightlyBatchConfig {
+
+    private final JobRepository jobRepository;
+    private final BatchTimingListener batchTimingListener;
+    private final Step updateDailyUserSpendStep;
+    private final Step updateUserScorePartitionStep;
+    private final Step updateChatRoomScorePartitionStep;
+    private final Step updateChatRoomPartitionStep;
+    private final Step updateChatRoomRankingStep;
+    private final Step updateRewardNotificationStep;
+
+    @Bean
+    public Job nightlyBatchJob() {
+
+        Flow userScoreFlow = new FlowBuilder<SimpleFlow>("userScoreFlow")
+                .start(updateUserScorePartitionStep)
+                .next(updateChatRoomScorePartitionStep)
+                .build();
+
+        Flow chatRoomStatsFlow = new FlowBuilder<SimpleFlow>("chatRoomStatsFlow")
+                .start(updateChatRoomPartitionStep)
+                .build();
+
+        Flow scoreAndStatsFlow = new FlowBuilder<SimpleFlow>("scoreAndStatsFlow")
+                .split(new SimpleAsyncTaskExecutor("batch-flow-"))
+                .add(userScoreFlow, chatRoomStatsFlow)
+                .build();
+
+        Flow nightlyFlow = new FlowBuilder<SimpleFlow>("nightlyFlow")
+                .start(updateDailyUserSpendStep)
+                .next(scoreAndStatsFlow)
+                .next(updateChatRoomRankingStep)
+                .next(updateRewardNotificationStep)
+                .build();
+
+        return new JobBuilder("nightlyBatchJob", jobRepository)
+                .start(nightlyFlow)
+                .end()
+                .listener(batchTimingListener)
+                .build();
+    }
+}
@@ -8,14 +8,12 @@ import com.umc.yeongkkeul.domain.mapping.ChatRoomMembership;
 import com.umc.yeongkkeul.domain.mapping.NotificationRead;
 import com.umc.yeongkkeul.repository.*;
 import lombok.RequiredArgsConstructor;
-import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
-import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.ItemProcessor;
-import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.support.ListItemReader;
 import org.springframework.context.annotation.Bean;
@@ -41,13 +39,7 @@ public class RewardNotificationBatchConfig {
     private final NotificationRepository notificationRepository;
     private final NotificationReadRepository notificationReadRepository;
     private final UserRepository userRepository;
-
-    @Bean
-    public Job updateRewardNotificationJob() {
-        return new JobBuilder("updateRewardNotificationJob", jobRepository)
-                .start(updateRewardNotificationStep())
-                .build();
-    }
+    private final BatchTimingListener batchTimingListener;
 
     @Bean
     public Step updateRewardNotificationStep() {
@@ -56,11 +48,15 @@ public class RewardNotificationBatchConfig {
                 .reader(chatRoomReader())
                 .processor(chatRoomProcessor())
                 .writer(chatRoomWriter())
+                .listener(batchTimingListener)
                 .build();
     }
 
+    // 같은 사용자가 여러 채팅방에서 보상을 받으므로(rewardBalance 갱신) 파티션 없이 한 스레드에서 처리
+    // Step이 시작될 때 채팅방을 읽어, 같은 실행에서 갱신된 랭킹과 달성 인원을 사용
     @Bean
-    public ItemReader<ChatRoom> chatRoomReader() {
+    @StepScope
+    public ListItemReader<ChatRoom> chatRoomReader() {
         return new ListItemReader<>(chatRoomRepository.findAll());
     }
 
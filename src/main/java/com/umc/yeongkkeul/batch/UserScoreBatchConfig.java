@@ -1,26 +1,19 @@
 package com.umc.yeongkkeul.batch;
 
-import com.umc.yeongkkeul.domain.*;
-import com.umc.yeongkkeul.domain.mapping.ChatRoomMembership;
-import com.umc.yeongkkeul.repository.ChatRoomMembershipRepository;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.EntityManagerFactory;
-import org.springframework.batch.core.Job;
+import com.umc.yeongkkeul.service.ChatRankLeaderboard;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
-import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.item.Chunk;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemWriter;
-import org.springframework.batch.item.database.JpaItemWriter;
-import org.springframework.batch.item.database.JpaPagingItemReader;
-import org.springframework.batch.item.database.builder.JpaPagingItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -30,107 +23,121 @@ import java.util.List;
 @EnableBatchProcessing
 public class UserScoreBatchConfig {
 
-    private final EntityManagerFactory entityManagerFactory;
     private final JobRepository jobRepository;
     private final PlatformTransactionManager transactionManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChatRankLeaderboard chatRankLeaderboard;
+    private final TaskExecutor batchTaskExecutor;
+    private final BatchTimingListener batchTimingListener;
+    private final int gridSize;
+    private final int chunkSize;
+
+    /**
+     * 사용자 한 명의 계산된 점수
+     */
+    public record UserScore(Long userId, double score) {
+    }
 
-    public UserScoreBatchConfig(EntityManagerFactory entityManagerFactory,
-                                JobRepository jobRepository,
-                                PlatformTransactionManager transactionManager) {
-        this.entityManagerFactory = entityManagerFactory;
+    public UserScoreBatchConfig(JobRepository jobRepository,
+                                PlatformTransactionManager transactionManager,
+                                JdbcTemplate jdbcTemplate,
+                                ChatRankLeaderboard chatRankLeaderboard,
+                                TaskExecutor batchTaskExecutor,
+                                BatchTimingListener batchTimingListener,
+                                @Value("${batch.grid-size}") int gridSize,
+                                @Value("${batch.chunk-size}") int chunkSize) {
         this.jobRepository = jobRepository;
         this.transactionManager = transactionManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.chatRankLeaderboard = chatRankLeaderboard;
+        this.batchTaskExecutor = batchTaskExecutor;
+        this.batchTimingListener = batchTimingListener;
+        this.gridSize = gridSize;
+        this.chunkSize = chunkSize;
     }
 
+    // 사용자 ID 범위로 나눈 파티션을 batchTaskExecutor에서 동시에 처리
     @Bean
-    public Job updateUserScoreJob() {
-        return new JobBuilder("updateUserScoreJob", jobRepository)
-                .start(updateUserScoreStep())
+    public Step updateUserScorePartitionStep() {
+        return new StepBuilder("updateUserScorePartitionStep", jobRepository)
+                .partitioner("updateUserScoreStep", new IdRangePartitioner(jdbcTemplate, "`user`"))
+                .step(updateUserScoreStep())
+                .gridSize(gridSize)
+                .taskExecutor(batchTaskExecutor)
                 .build();
     }
 
     @Bean
     public Step updateUserScoreStep() {
         return new StepBuilder("updateUserScoreStep", jobRepository)
-                .<User, List<ChatRoomMembership>>chunk(10, transactionManager)
-                .reader(userReader())
+                .<UserScoreInputReader.UserScoreInput, UserScore>chunk(chunkSize, transactionManager)
+                .reader(userScoreInputReader(null, null))
                 .processor(userScoreProcessor())
                 .writer(userScoreWriter())
+                .listener(batchTimingListener)
                 .build();
     }
 
+    // 사용자와 어제 지출 집계를 페이지 단위로 함께 읽음 (사용자마다 쿼리를 보내지 않음), 파티션마다 새 인스턴스
     @Bean
-    public JpaPagingItemReader<User> userReader() {
-        return new JpaPagingItemReaderBuilder<User>()
-                .name("userReader")
-                .entityManagerFactory(entityManagerFactory)
-                .queryString("SELECT u FROM User u JOIN FETCH u.chatRoomMembershipList")
-                .pageSize(10)
-                .build();
+    @StepScope
+    public UserScoreInputReader userScoreInputReader(
+            @Value("#{stepExecutionContext['minId']}") Long minId,
+            @Value("#{stepExecutionContext['maxId']}") Long maxId
+    ) {
+        return new UserScoreInputReader(jdbcTemplate, LocalDate.now().minusDays(1), minId, maxId, chunkSize);
     }
 
     @Bean
-    public ItemProcessor<User, List<ChatRoomMembership>> userScoreProcessor() {
-        return user -> {
-            EntityManager entityManager = entityManagerFactory.createEntityManager();
-            try {
-
-                int totalCategories = user.getCategoryList().size();
-                Integer dayTargetExpenditure = user.getDayTargetExpenditure();
-                long totalExpenditure = entityManager.createQuery(
-                                "SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.user.id = :userId AND e.day = :yesterday", Long.class)
-                        .setParameter("userId", user.getId())
-                        .setParameter("yesterday", LocalDate.now().minusDays(1))
-                        .getSingleResult();
-
-                long noSpendingCount = entityManager.createQuery(
-                                "SELECT COUNT(e) FROM Expense e WHERE e.user.id = :userId AND e.isNoSpending = true AND e.day = :yesterday", Long.class)
-                        .setParameter("userId", user.getId())
-                        .setParameter("yesterday", LocalDate.now().minusDays(1))
-                        .getSingleResult();
-
-                long filledCategories = entityManager.createQuery(
-                                "SELECT COUNT(DISTINCT e.category.id) FROM Expense e WHERE e.user.id = :userId AND e.day = :yesterday", Long.class)
-                        .setParameter("userId", user.getId())
-                        .setParameter("yesterday", LocalDate.now().minusDays(1))
-                        .getSingleResult();
-
-
-                double score = 0.0;
-                if (dayTargetExpenditure != null && dayTargetExpenditure > 0) {
-                    score += (100 - (double) totalExpenditure / dayTargetExpenditure * 100) * 0.5;
-                }
-                if (totalCategories > 0) {
-                    score += ((double) noSpendingCount / totalCategories * 100) * 0.3;
-                    score += ((double) filledCategories / totalCategories * 100) * 0.2;
-                }
-
-
-                List<ChatRoomMembership> memberships = user.getChatRoomMembershipList();
-                for (ChatRoomMembership membership : memberships) {
-                    membership.setYesterdayScore(membership.getUserScore());
-                    membership.setUserScore(score);
-                }
-
-                return memberships.isEmpty() ? null : memberships;
-            } finally {
-                entityManager.close();
+    public ItemProcessor<UserScoreInputReader.UserScoreInput, UserScore> userScoreProcessor() {
+        return input -> {
+            double score = 0.0;
+            Integer dayTargetExpenditure = input.dayTargetExpenditure();
+            if (dayTargetExpenditure != null && dayTargetExpenditure > 0) {
+                score += (100 - (double) input.totalExpenditure() / dayTargetExpenditure * 100) * 0.5;
             }
+            if (input.totalCategories() > 0) {
+                score += ((double) input.noSpendingCount() / input.totalCategories() * 100) * 0.3;
+                score += ((double) input.filledCategories() / input.totalCategories() * 100) * 0.2;
+            }
+
+            return new UserScore(input.userId(), score);
         };
     }
 
+    // chunk의 모든 참여 정보를 UPDATE 한 번으로 갱신 (MySQL은 SET을 왼쪽부터 적용하므로 yesterday_score에는 기존 user_score가 들어감)
     @Bean
-    @Transactional
-    public ItemWriter<List<ChatRoomMembership>> userScoreWriter() {
-        JpaItemWriter<ChatRoomMembership> jpaItemWriter = new JpaItemWriter<>();
-        jpaItemWriter.setEntityManagerFactory(entityManagerFactory);
-
+    public ItemWriter<UserScore> userScoreWriter() {
         return items -> {
-            List<ChatRoomMembership> flatList = new ArrayList<>();
-            for (List<ChatRoomMembership> memberships : items) {
-                flatList.addAll(memberships);
+            if (items.isEmpty()) return;
+
+            StringBuilder caseClause = new StringBuilder();
+            StringBuilder inClause = new StringBuilder();
+            List<Object> params = new ArrayList<>(items.size() * 3);
+            for (UserScore userScore : items) {
+                caseClause.append(" WHEN ? THEN ?");
+                params.add(userScore.userId());
+                params.add(userScore.score());
+            }
+            for (UserScore userScore : items) {
+                if (!inClause.isEmpty()) inClause.append(", ");
+                inClause.append('?');
+                params.add(userScore.userId());
             }
-            jpaItemWriter.write(new Chunk<>(flatList));
+
+            jdbcTemplate.update("UPDATE chat_room_membership SET yesterday_score = user_score, " +
+                    "user_score = CASE user_id" + caseClause + " END " +
+                    "WHERE user_id IN (" + inClause + ")", params.toArray());
+
+            // chunk 커밋 이후 랭킹 캐시에 반영
+            List<ChatRankLeaderboard.ScoreUpdate> scoreUpdates = jdbcTemplate.query(
+                    "SELECT chat_room_id, user_id, user_score, yesterday_score FROM chat_room_membership " +
+                    "WHERE user_id IN (" + inClause + ")",
+                    (rs, rowNum) -> new ChatRankLeaderboard.ScoreUpdate(
+                            rs.getLong("chat_room_id"), rs.getLong("user_id"),
+                            rs.getObject("user_score", Double.class), rs.getObject("yesterday_score", Double.class)),
+                    items.getItems().stream().map(UserScore::userId).toArray());
+            chatRankLeaderboard.updateScores(scoreUpdates);
         };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,112 @@
+package com.umc.yeongkkeul.batch;
+
+import org.springframework.batch.item.database.AbstractPagingItemReader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * UserScoreInputReader 클래스
+ * 채팅방에 참여 중인 사용자의 점수 계산 재료(어제 지출 합계, 무지출 수, 기록한 카테고리 수, 전체 카테고리 수)를 사용자 ID 순으로 읽는 Reader.
+ *
+ * 한 페이지마다 쿼리 두 번으로 처리합니다.
+ * 1. 사용자와 어제 지출: WHERE id > 마지막 ID AND id <= maxUserId ORDER BY id LIMIT pageSize (keyset, OFFSET과 JOIN FETCH 없이)
+ *    어제 지출은 DailyUserSpendTasklet이 미리 집계한 daily_user_spend를 LEFT JOIN (Expense를 다시 집계하지 않음)
+ * 2. 카테고리 수: 페이지의 사용자 ID 범위에 대해 GROUP BY user_id 집계 한 번
+ *
+ * 파티션마다 minUserId~maxUserId 범위의 Reader를 따로 만들어 사용하므로, 하나의 인스턴스를 여러 스레드가 공유하지 않습니다.
+ */
+public class UserScoreInputReader extends AbstractPagingItemReader<UserScoreInputReader.UserScoreInput> {
+
+    private static final String SELECT_USERS =
+            "SELECT u.id, u.day_target_expenditure, " +
+            "COALESCE(d.total_expenditure, 0) AS total_expenditure, COALESCE(d.no_spending_count, 0) AS no_spending_count, " +
+            "COALESCE(d.category_count, 0) AS filled_categories " +
+            "FROM `user` u LEFT JOIN daily_user_spend d ON d.user_id = u.id AND d.day = ? " +
+            "WHERE u.id > ? AND u.id <= ? AND EXISTS (SELECT 1 FROM chat_room_membership m WHERE m.user_id = u.id) " +
+            "ORDER BY u.id LIMIT ?";
+    private static final String SELECT_CATEGORY_COUNTS =
+            "SELECT c.user_id, COUNT(*) AS total_categories FROM category c " +
+            "WHERE c.user_id BETWEEN ? AND ? GROUP BY c.user_id";
+
+    /**
+     * 사용자 한 명의 점수 계산 재료 (어제 기준)
+     */
+    public record UserScoreInput(
+            Long userId,
+            Integer dayTargetExpenditure,
+            long totalCategories,
+            long totalExpenditure,
+            long noSpendingCount,
+            long filledCategories
+    ) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalDate day;
+    private final long minUserId;
+    private final long maxUserId;
+    private long lastUserId;
+
+    public UserScoreInputReader(JdbcTemplate jdbcTemplate, LocalDate day, long minUserId, long maxUserId, int pageSize) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.day = day;
+        this.minUserId = minUserId;
+        this.maxUserId = maxUserId;
+        this.lastUserId = minUserId - 1;
+        setName("userScoreInputReader");
+        setPageSize(pageSize);
+        setSaveState(false); // 마지막 ID로 이어 읽기 때문에 페이지 번호 기반 재시작은 사용하지 않음 (매 실행이 새 JobInstance)
+    }
+
+    @Override
+    protected void doReadPage() {
+
+        if (results == null) {
+            results = new ArrayList<>();
+        } else {
+            results.clear();
+        }
+
+        List<UserScoreInput> users = jdbcTemplate.query(SELECT_USERS, (rs, rowNum) -> new UserScoreInput(
+                        rs.getLong("id"),
+                        rs.getObject("day_target_expenditure", Integer.class),
+                        0L,
+                        rs.getLong("total_expenditure"),
+                        rs.getLong("no_spending_count"),
+                        rs.getLong("filled_categories")),
+                Date.valueOf(day), lastUserId, maxUserId, getPageSize());
+        if (users.isEmpty()) return;
+
+        long firstUserId = users.get(0).userId();
+        lastUserId = users.get(users.size() - 1).userId();
+
+        Map<Long, Long> categoryCounts = new HashMap<>();
+        jdbcTemplate.query(SELECT_CATEGORY_COUNTS, rs -> {
+            categoryCounts.put(rs.getLong("user_id"), rs.getLong("total_categories"));
+        }, firstUserId, lastUserId);
+
+        for (UserScoreInput user : users) {
+            results.add(new UserScoreInput(
+                    user.userId(),
+                    user.dayTargetExpenditure(),
+                    categoryCounts.getOrDefault(user.userId(), 0L),
+                    user.totalExpenditure(),
+                    user.noSpendingCount(),
+                    user.filledCategories()));
+        }
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+
+        super.doOpen();
+        lastUserId = minUserId - 1;
+    }
+}
@@ -4,6 +4,7 @@ import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.AWSCredentialsProvider;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.umc.yeongkkeul.domain.common.Uuid;
@@ -32,6 +33,10 @@ public class AmazonConfig {
     @Value("${cloud.aws.s3.bucket}")
     private String bucket;
 
+    // S3 호환 저장소(MinIO, LocalStack 등)로 테스트할 때만 설정, 비어 있으면 AWS S3를 사용
+    @Value("${cloud.aws.s3.endpoint:}")
+    private String endpoint;
+
     @Value("${cloud.aws.path.user-profile}")
     private String userProfilePath;
 
@@ -55,9 +60,17 @@ public class AmazonConfig {
     @Bean
     public AmazonS3 amazonS3() {
         AWSCredentials awsCredentials = new BasicAWSCredentials(accessKey, secretKey);
-        return AmazonS3ClientBuilder.standard()
-                .withRegion(region)
-                .withCredentials(new AWSStaticCredentialsProvider(awsCredentials))
+        AmazonS3ClientBuilder builder = AmazonS3ClientBuilder.standard()
+                .withCredentials(new AWSStaticCredentialsProvider(awsCredentials));
+
+        if (endpoint.isBlank()) {
+            return builder.withRegion(region).build();
+        }
+
+        // S3 호환 저장소는 버킷 이름을 도메인이 아닌 경로로 사용
+        return builder
+                .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, region))
+                .withPathStyleAccessEnabled(true)
                 .build();
     }
 
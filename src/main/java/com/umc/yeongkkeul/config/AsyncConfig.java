@@ -0,0 +1,77 @@
+package com.umc.yeongkkeul.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 비동기(@Async) 작업과 배치 파티션에 사용할 Executor를 설정하는 구성 클래스.
+ */
+@Slf4j
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /**
+     * 오프라인 수신자 푸시 알림 Executor
+     * 큐가 가득 차면 메시지 전송 스레드가 기다리지 않도록 푸시 작업을 버리고 로그를 남깁니다.
+     */
+    @Bean(name = "chatPushExecutor")
+    public Executor chatPushExecutor(
+            @Value("${chat.push.pool-size}") int poolSize,
+            @Value("${chat.push.queue-capacity}") int queueCapacity
+    ) {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("chat-push-");
+        executor.setRejectedExecutionHandler((task, pool) -> log.warn("Chat push queue is full. Push task dropped."));
+        executor.initialize();
+
+        return executor;
+    }
+
+    /**
+     * 채팅방 이미지 인덱스 채우기 Executor
+     * 메시지 기록(MySQL 포함)을 읽는 작업을 요청 스레드 밖에서 실행합니다. 큐가 가득 차면 거절하고, 다음 조회에서 다시 시도합니다.
+     */
+    @Bean(name = "chatImageBackfillExecutor")
+    public Executor chatImageBackfillExecutor(
+            @Value("${chat.image-index.backfill-pool-size}") int poolSize,
+            @Value("${chat.image-index.backfill-queue-capacity}") int queueCapacity
+    ) {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("chat-image-backfill-");
+        executor.initialize();
+
+        return executor;
+    }
+
+    /**
+     * 배치 파티션 Executor
+     * 파티션 수보다 스레드가 적으면 남은 파티션은 큐에서 기다렸다가 처리됩니다.
+     */
+    @Bean(name = "batchTaskExecutor")
+    public TaskExecutor batchTaskExecutor(@Value("${batch.pool-size}") int poolSize) {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("batch-");
+        executor.initialize();
+
+        return executor;
+    }
+}
@@ -1,25 +1,29 @@
 package com.umc.yeongkkeul.config;
 
-import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+import com.umc.yeongkkeul.converter.MessageDtoAmqpMessageConverter;
+import com.umc.yeongkkeul.converter.MessageDtoBinaryCodec;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
-import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * 외부 브로커인 RabbitMQ를 설정하는 구성 클래스.
+ * 외부 브로커인 RabbitMQ를 설정하는 구성 클래스. (embedded 프로필에서는 사용하지 않음)
  */
 @Configuration
+@Profile("!embedded")
 @EnableRabbit
 @Slf4j
 public class RabbitMQConfig {
@@ -31,6 +35,10 @@ public class RabbitMQConfig {
     private final int RABBITMQ_PORT;
     private final String RABBITMQ_USERNAME;
     private final String RABBITMQ_PASSWORD;
+    private final int PERSISTENCE_BATCH_SIZE; // 채팅 메시지를 MySQL에 한 번에 저장하는 최대 개수
+    private final long PERSISTENCE_FLUSH_INTERVAL_MS; // 배치가 다 차지 않아도 저장하는 대기 시간
+    private final MessageDtoBinaryCodec.Type MESSAGE_CODEC; // 채팅 메시지(MessageDto)를 전송할 형식
+    private final int PERSISTENCE_SHARD_COUNT; // 채팅 메시지 저장 Queue를 나누는 개수 (1이면 chat.queue 하나만 사용)
 
     public RabbitMQConfig(
             @Value("${rabbitmq.queue.name}") String CHAT_QUEUE_NAME,
@@ -39,7 +47,11 @@ public class RabbitMQConfig {
             @Value("${spring.rabbitmq.host}") String RABBITMQ_HOST,
             @Value("${spring.rabbitmq.port}") int RABBITMQ_PORT,
             @Value("${spring.rabbitmq.username}") String RABBITMQ_USERNAME,
-            @Value("${spring.rabbitmq.password}") String RABBITMQ_PASSWORD
+            @Value("${spring.rabbitmq.password}") String RABBITMQ_PASSWORD,
+            @Value("${chat.persistence.batch-size}") int PERSISTENCE_BATCH_SIZE,
+            @Value("${chat.persistence.flush-interval-ms}") long PERSISTENCE_FLUSH_INTERVAL_MS,
+            @Value("${chat.message.codec.amqp}") MessageDtoBinaryCodec.Type MESSAGE_CODEC,
+            @Value("${chat.persistence.shard-count}") int PERSISTENCE_SHARD_COUNT
     ) {
 
         this.CHAT_QUEUE_NAME = CHAT_QUEUE_NAME;
@@ -49,6 +61,17 @@ public class RabbitMQConfig {
         this.RABBITMQ_PORT = RABBITMQ_PORT;
         this.RABBITMQ_USERNAME = RABBITMQ_USERNAME;
         this.RABBITMQ_PASSWORD = RABBITMQ_PASSWORD;
+        this.PERSISTENCE_BATCH_SIZE = PERSISTENCE_BATCH_SIZE;
+        this.PERSISTENCE_FLUSH_INTERVAL_MS = PERSISTENCE_FLUSH_INTERVAL_MS;
+        this.MESSAGE_CODEC = MESSAGE_CODEC;
+        this.PERSISTENCE_SHARD_COUNT = PERSISTENCE_SHARD_COUNT;
+    }
+
+    /**
+     * @return 채팅 메시지 저장 샤드 Queue 이름 ("chat.queue.0", "chat.queue.1", ...)
+     */
+    public static String shardQueueName(String chatQueueName, int shard) {
+        return chatQueueName + "." + shard;
     }
 
     /**
@@ -80,7 +103,6 @@ public class RabbitMQConfig {
      * @param chatExchange TopicExchage "chat.exchange", 메시지를 특정 패턴(Routing Key)에 따라 라우팅하는 역할
      * @return "chat.queue"에 "chat.exchange" 규칙을 Binding한다.
      */
-    @Bean
     public Binding chatBinding(Queue chatQueue, TopicExchange chatExchange) {
 
         return BindingBuilder
@@ -89,6 +111,40 @@ public class RabbitMQConfig {
                 .with(CHAT_ROUTING_KEY); // 라우팅 키 설정 -> 이 키와 일치하는 메시지만 Queue로 전달
     }
 
+    /**
+     * 채팅 메시지를 MySQL에 저장하는 Consumer가 읽을 Queue 구성.
+     *
+     * shard-count가 1이면 기존처럼 chat.queue를 chat.exchange에 바인딩합니다.
+     * 1보다 크면 chat.exchange의 메시지를 x-consistent-hash Exchange로 넘기고, 라우팅 키(chat.room.{id})의 해시로
+     * chat.queue.0 ~ chat.queue.{n-1} 중 하나에 넣습니다. 같은 채팅방은 항상 같은 Queue로 가기 때문에 채팅방 안의 순서가 유지됩니다.
+     * 샤드 Queue는 single-active-consumer이므로 여러 서버가 구독해도 Queue마다 한 Consumer만 메시지를 받습니다.
+     * (rabbitmq_consistent_hash_exchange 플러그인 필요)
+     */
+    @Bean
+    public Declarables chatPersistenceBindings() {
+
+        if (PERSISTENCE_SHARD_COUNT <= 1) {
+            return new Declarables(chatBinding(chatQueue(), chatExchange()));
+        }
+
+        CustomExchange shardExchange = new CustomExchange(CHAT_QUEUE_NAME + ".shard", "x-consistent-hash", true, false);
+
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(shardExchange);
+        declarables.add(BindingBuilder.bind(shardExchange).to(chatExchange()).with(CHAT_ROUTING_KEY));
+
+        for (int shard = 0; shard < PERSISTENCE_SHARD_COUNT; shard++) {
+            Queue shardQueue = QueueBuilder.durable(shardQueueName(CHAT_QUEUE_NAME, shard))
+                    .singleActiveConsumer()
+                    .build();
+
+            declarables.add(shardQueue);
+            declarables.add(BindingBuilder.bind(shardQueue).to(shardExchange).with("1").noargs()); // 라우팅 키는 해시 공간의 가중치
+        }
+
+        return new Declarables(declarables);
+    }
+
     /**
      * CachingConnectionFactory: RabbitMQ와의 연결을 효율적으로 관리하기 위해 커넥션 풀링 및 캐싱 기능을 제공
      *
@@ -128,12 +184,12 @@ public class RabbitMQConfig {
 
             // 메시지가 성공적으로 RabbitMQ 서버에 전달되었을 때
             if (ack) {
-                log.info("Message successfully sent to broker: {}", correlationData.getId());
+                log.debug("Message successfully sent to broker: {}", correlationData.getId());
             } else {
                 // 메시지가 RabbitMQ 서버에 전달되지 못했을 때
                 log.error("Message failed to send to broker: {}, cause: {}", correlationData.getId(), cause);
 
-                // TODO: 재전송 로직이나 MessageDto의 상태를 변경하는 로직 추가
+                // 가입/퇴장/퇴출 메시지(outbox)의 재전송은 ChatOutboxPublisher에서 처리
             }
         });
 
@@ -163,19 +219,37 @@ public class RabbitMQConfig {
         RabbitAdmin rabbitAdmin = new RabbitAdmin(connectionFactory);
         rabbitAdmin.declareExchange(chatExchange()); // Exchange 등록
         rabbitAdmin.declareQueue(chatQueue()); // Queue 등록
-        rabbitAdmin.declareBinding(chatBinding(chatQueue(), chatExchange())); // Binding 등록
+
+        // Binding 등록 (샤드를 사용하면 샤드 Exchange, Queue 포함)
+        for (Declarable declarable : chatPersistenceBindings().getDeclarables()) {
+            if (declarable instanceof Exchange exchange) rabbitAdmin.declareExchange(exchange);
+            else if (declarable instanceof Queue queue) rabbitAdmin.declareQueue(queue);
+            else if (declarable instanceof Binding binding) rabbitAdmin.declareBinding(binding);
+        }
+
+        // 샤드를 사용하면 chat.queue에는 새 메시지가 들어오지 않도록 하고, 남은 메시지만 마저 처리
+        if (PERSISTENCE_SHARD_COUNT > 1) {
+            rabbitAdmin.removeBinding(chatBinding(chatQueue(), chatExchange()));
+        }
         return rabbitAdmin;
     }
 
+    /**
+     * 채팅 메시지(MessageDto)는 chat.message.codec.amqp 설정에 따라 바이너리 또는 JSON으로, 그 외의 값은 JSON으로 직렬화.
+     * 수신할 때는 content-type으로 형식을 구분하기 때문에 두 형식이 섞여 있어도 처리할 수 있습니다.
+     */
     @Bean
-    public Jackson2JsonMessageConverter messageConverter() {
-        return new Jackson2JsonMessageConverter(); // 메시지를 JSON으로 직렬/역직렬화
+    public MessageConverter messageConverter() {
+        return new MessageDtoAmqpMessageConverter(MESSAGE_CODEC);
     }
 
     /**
      * @RabbitListener 애노테이션이 붙은 메소드가 메시지를 비동기적으로 처리할 수 있게 해주는 리스너 컨테이너를 설정
      * 메시지가 큐에 도착하면, SimpleRabbitListenerContainerFactory가 자동으로 리스너 컨테이너를 관리하여 메시지를 수신하고 처리
      *
+     * 리스너는 메시지를 batch-size개씩 List로 받습니다.
+     * 배치가 다 차지 않아도 flush-interval-ms 동안 새 메시지가 없으면 모인 메시지까지만 전달합니다.
+     *
      * @param connectionFactory RabbitMQ 연결 팩토리
      * @param messageConverter Json 데이터 직렬화/역직렬화
      */
@@ -186,19 +260,12 @@ public class RabbitMQConfig {
         factory.setConnectionFactory(connectionFactory);
         factory.setMessageConverter(messageConverter);
 
-        factory.setPrefetchCount(100); // 한 번에 100개만 처리 가능
+        factory.setBatchListener(true); // 리스너가 List<MessageDto>로 메시지를 받는다.
+        factory.setConsumerBatchEnabled(true); // 컨테이너가 메시지를 모아서 한 번에 전달
+        factory.setBatchSize(PERSISTENCE_BATCH_SIZE);
+        factory.setReceiveTimeout(PERSISTENCE_FLUSH_INTERVAL_MS);
+        factory.setPrefetchCount(Math.max(100, PERSISTENCE_BATCH_SIZE)); // 배치를 채울 수 있도록 최소 batch-size만큼 받아둔다.
 
         return factory;
     }
-
-    /**
-     * 이 애노테이션은 해당 메소드가 RabbitMQ 큐로부터 메시지를 비동기적으로 수신하도록 합니다.
-     * 큐 이름을 지정하여 해당 큐로부터 전달되는 메시지를 받을 수 있습니다.
-     *
-     * @param messageDto
-     */
-    @RabbitListener(queues = "chat.queue")
-    public void receiveMessage(MessageDto messageDto) {
-        log.info("Received Message: {}", messageDto);
-    }
 }
\ No newline at end of file
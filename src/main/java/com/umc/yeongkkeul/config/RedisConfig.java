@@ -1,12 +1,14 @@
 package com.umc.yeongkkeul.config;
 
+import com.umc.yeongkkeul.converter.MessageDtoBinaryCodec;
+import com.umc.yeongkkeul.converter.MessageDtoRedisSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializer;
 
 /**
@@ -20,16 +22,19 @@ public class RedisConfig {
     private final String REDIS_HOST; // Redis 서버의 호스트 주소
     private final int REDIS_PORT; // Redis 서버의 포트 번호
     private final String REDIS_PASSWORD; // Redis 서버의 비밀번호
+    private final MessageDtoBinaryCodec.Type MESSAGE_CODEC; // 채팅 메시지(MessageDto)를 저장할 형식
 
     public RedisConfig(
             @Value("${spring.data.redis.host}") String REDIS_HOST,
             @Value("${spring.data.redis.port}") int REDIS_PORT,
-            @Value("${spring.data.redis.password}") String REDIS_PASSWORD)
+            @Value("${spring.data.redis.password}") String REDIS_PASSWORD,
+            @Value("${chat.message.codec.redis}") MessageDtoBinaryCodec.Type MESSAGE_CODEC)
     {
 
         this.REDIS_HOST = REDIS_HOST;
         this.REDIS_PORT = REDIS_PORT;
         this.REDIS_PASSWORD = REDIS_PASSWORD;
+        this.MESSAGE_CODEC = MESSAGE_CODEC;
     }
 
     /**
@@ -52,6 +57,7 @@ public class RedisConfig {
      * Redis와의 데이터 작업을 수행하기 위한 주요 도구로 사용.
      * 다양한 Redis 데이터 구조(String, Hash 등)를 쉽게 다룰 수 있도록 지원.
      * Operations 을 제공해 Redis의 데이터에 접근.
+     * 채팅 메시지(MessageDto)는 chat.message.codec.redis 설정에 따라 바이너리로, 그 외의 값은 JSON으로 직렬화.
      *
      * @return RedisTemplate<String, Object> - Redis 데이터 작업용 템플릿 객체
      */
@@ -62,11 +68,26 @@ public class RedisConfig {
         template.setConnectionFactory(redisConnectionFactory());
 
         template.setKeySerializer(RedisSerializer.string()); // Key 직렬화 방식 설정 (문자열 기반)
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer()); // Value 직렬화 방식 설정 (JSON 직렬화)
+        MessageDtoRedisSerializer valueSerializer = new MessageDtoRedisSerializer(MESSAGE_CODEC);
+        template.setValueSerializer(valueSerializer); // Value 직렬화 방식 설정 (MessageDto는 바이너리, 그 외 JSON 직렬화)
 
         template.setHashKeySerializer(RedisSerializer.string()); // Hash Key 직렬화 방식 설정 (문자열 기반)
-        template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer()); // Hash Value 직렬화 방식 설정 (JSON 직렬화)
+        template.setHashValueSerializer(valueSerializer); // Hash Value 직렬화 방식 설정 (MessageDto는 바이너리, 그 외 JSON 직렬화)
 
         return template;
     }
-}
\ No newline at end of file
+
+    /**
+     * Redis Pub/Sub 메시지를 수신하는 리스너 컨테이너 빈 정의.
+     * 서버 간 온라인 상태 변경 알림(socket:presence) 수신에 사용.
+     *
+     * @return RedisMessageListenerContainer - Pub/Sub 구독을 관리하는 컨테이너
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer() {
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory());
+        return container;
+    }
+}
@@ -1,13 +1,17 @@
 package com.umc.yeongkkeul.config;
 
 import com.umc.yeongkkeul.socket.SocketSessionInterceptor;
+import com.umc.yeongkkeul.socket.StompRateLimitInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.messaging.simp.stomp.StompReactorNettyCodec;
 import org.springframework.messaging.tcp.reactor.ReactorNettyTcpClient;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -18,6 +22,9 @@ import reactor.netty.tcp.TcpClient;
  * WebSocketBrokerConfig 클래스
  * STOMP 프로토콜을 기반으로 웹소켓 메시지 브로커를 설정하는 구성 클래스.
  * Spring Boot 애플리케이션에서 WebSocket 통신 및 메시지 브로커 기능을 활성화.
+ *
+ * 기본은 RabbitMQ STOMP 브로커 릴레이를 사용하고,
+ * embedded 프로필에서는 같은 목적지를 Spring의 Simple Broker(JVM 내부)로 처리합니다. (단일 서버 부하 테스트 용도)
  */
 @Configuration
 @EnableWebSocketMessageBroker // WebSocket 메시지 브로커 활성화
@@ -26,24 +33,31 @@ public class WebSocketBrokerConfig implements WebSocketMessageBrokerConfigurer {
     private final String RABBITMQ_HOST;
     private final String RABBITMQ_USERNAME;
     private final String RABBITMQ_PASSWORD;
+    private final boolean EMBEDDED_BROKER; // embedded 프로필이면 Simple Broker 사용
 
     @Autowired
     private SocketSessionInterceptor socketSessionInterceptor;
 
+    @Autowired
+    private StompRateLimitInterceptor stompRateLimitInterceptor;
+
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(socketSessionInterceptor);
+        // 제한을 넘은 SEND 프레임은 참여자 확인(Redis) 전에 거절
+        registration.interceptors(stompRateLimitInterceptor, socketSessionInterceptor);
     }
 
 
     public WebSocketBrokerConfig (
             @Value("${spring.rabbitmq.host}") String RABBITMQ_HOST,
             @Value("${spring.rabbitmq.username}") String RABBITMQ_USERNAME,
-            @Value("${spring.rabbitmq.password}") String RABBITMQ_PASSWORD
+            @Value("${spring.rabbitmq.password}") String RABBITMQ_PASSWORD,
+            Environment environment
     ) {
         this.RABBITMQ_HOST = RABBITMQ_HOST;
         this.RABBITMQ_USERNAME = RABBITMQ_USERNAME;
         this.RABBITMQ_PASSWORD = RABBITMQ_PASSWORD;
+        this.EMBEDDED_BROKER = environment.acceptsProfiles(Profiles.of("embedded"));
     }
 
     /**
@@ -55,6 +69,22 @@ public class WebSocketBrokerConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
 
+        if (EMBEDDED_BROKER) {
+            enableSimpleBroker(registry);
+        } else {
+            enableStompBrokerRelay(registry);
+        }
+
+        // 메시지 경로의 구분자를 `/` 대신 `.`으로 변경 (예: /topic/chat -> topic.chat)
+        registry.setPathMatcher(new AntPathMatcher("."));
+
+        // 클라이언트가 SEND 요청을 보낼 때 라우팅될 경로의 접두어 설정
+        // 예: /pub/chat -> @MessageMapping("chat")으로 매핑
+        registry.setApplicationDestinationPrefixes("/pub");
+    }
+
+    private void enableStompBrokerRelay(MessageBrokerRegistry registry) {
+
         TcpClient tcpClient = TcpClient
                 .create()
                 .host(RABBITMQ_HOST)
@@ -73,13 +103,19 @@ public class WebSocketBrokerConfig implements WebSocketMessageBrokerConfigurer {
                 .setSystemPasscode(RABBITMQ_PASSWORD) // RabbitMQ 시스템 비밀번호
                 .setClientLogin(RABBITMQ_USERNAME) // RabbitMQ 클라이언트 계정
                 .setClientPasscode(RABBITMQ_PASSWORD); // RabbitMQ 클라이언트 비밀번호
+    }
 
-        // 메시지 경로의 구분자를 `/` 대신 `.`으로 변경 (예: /topic/chat -> topic.chat)
-        registry.setPathMatcher(new AntPathMatcher("."));
+    // 클라이언트는 릴레이와 같은 목적지(/exchange/chat.exchange/chat.room.{id} 등)를 그대로 구독
+    private void enableSimpleBroker(MessageBrokerRegistry registry) {
 
-        // 클라이언트가 SEND 요청을 보낼 때 라우팅될 경로의 접두어 설정
-        // 예: /pub/chat -> @MessageMapping("chat")으로 매핑
-        registry.setApplicationDestinationPrefixes("/pub");
+        ThreadPoolTaskScheduler heartbeatScheduler = new ThreadPoolTaskScheduler();
+        heartbeatScheduler.setPoolSize(1);
+        heartbeatScheduler.setThreadNamePrefix("stomp-heartbeat-");
+        heartbeatScheduler.initialize();
+
+        registry.enableSimpleBroker("/queue", "/topic", "/exchange", "/amq/queue")
+                .setHeartbeatValue(new long[]{10000, 10000}) // RabbitMQ STOMP의 기본 heartbeat와 같은 주기
+                .setTaskScheduler(heartbeatScheduler);
     }
 
     /**
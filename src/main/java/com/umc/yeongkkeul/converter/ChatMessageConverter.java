@@ -0,0 +1,27 @@
+package com.umc.yeongkkeul.converter;
+
+import com.umc.yeongkkeul.domain.Message;
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+
+public class ChatMessageConverter {
+
+    /**
+     * @param message DB에 보관된 채팅 메시지
+     * @return 보관된 메시지를 클라이언트에 내려주는 MessageDto로 변환, unreadCount는 읽음 워터마크로 다시 계산한다.
+     */
+    public static MessageDto toMessageDto(Message message) {
+
+        return MessageDto.builder()
+                .id(message.getId())
+                .chatRoomId(message.getChatRoomId())
+                .senderId(message.getSenderId())
+                .messageType(message.getMessageType())
+                .content(message.getContent())
+                .timestamp(message.getSentAt() == null ? null : message.getSentAt().toString())
+                .unreadCount(0)
+                .rabbitMQTransmissionStatus(true)
+                .finalTransmissionStatus(true)
+                .saveStatus(true)
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.umc.yeongkkeul.converter;
+
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.SmartMessageConverter;
+
+/**
+ * MessageDtoAmqpMessageConverter 클래스
+ * RabbitMQ 메시지의 본문을 MessageDtoBinaryCodec 또는 JSON으로 변환하는 Converter.
+ *
+ * 바이너리 메시지는 content-type으로 구분하기 때문에 JSON 메시지와 같은 큐에 섞여 있어도 읽을 수 있습니다.
+ * STOMP 클라이언트는 같은 Exchange의 메시지를 JSON으로 받기 때문에, 클라이언트가 바이너리를 지원하기 전까지는 JSON을 사용합니다.
+ */
+public class MessageDtoAmqpMessageConverter implements SmartMessageConverter {
+
+    public static final String BINARY_CONTENT_TYPE = "application/vnd.yeongkkeul.message-dto";
+
+    private final Jackson2JsonMessageConverter jsonConverter = new Jackson2JsonMessageConverter();
+    private final MessageDtoBinaryCodec.Type writeType;
+
+    public MessageDtoAmqpMessageConverter(MessageDtoBinaryCodec.Type writeType) {
+        this.writeType = writeType;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) throws MessageConversionException {
+
+        if (writeType == MessageDtoBinaryCodec.Type.BINARY && object instanceof MessageDto messageDto) {
+            byte[] body = MessageDtoBinaryCodec.encode(messageDto);
+            messageProperties.setContentType(BINARY_CONTENT_TYPE);
+            messageProperties.setContentLength(body.length);
+            return new Message(body, messageProperties);
+        }
+
+        return jsonConverter.toMessage(object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws MessageConversionException {
+        return fromMessage(message, null);
+    }
+
+    @Override
+    public Object fromMessage(Message message, Object conversionHint) throws MessageConversionException {
+
+        if (BINARY_CONTENT_TYPE.equals(message.getMessageProperties().getContentType())) {
+            try {
+                return MessageDtoBinaryCodec.decode(message.getBody());
+            } catch (RuntimeException e) {
+                throw new MessageConversionException("Could not decode binary MessageDto.", e);
+            }
+        }
+
+        return jsonConverter.fromMessage(message, conversionHint);
+    }
+}
@@ -0,0 +1,226 @@
+package com.umc.yeongkkeul.converter;
+
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * MessageDtoBinaryCodec 클래스
+ * MessageDto를 필드 이름과 타입 정보 없이 바이트로 직렬화하는 코덱.
+ *
+ * [MAGIC 1byte][VERSION 1byte][존재하는 필드 비트마스크 varint][Boolean 값 1byte][존재하는 필드 값...]
+ *
+ * - id: 8byte 고정 (TSID는 varint로 쓰면 9byte가 되기 때문)
+ * - chatRoomId, senderId, unreadCount: zigzag varint
+ * - messageType: 알려진 타입은 코드 1byte, 그 외에는 0 뒤에 문자열
+ * - timestamp: LocalDateTime.toString() 형식이면 epoch 초/나노초 varint, 그 외에는 문자열
+ * - 문자열: 길이 varint + UTF-8
+ *
+ * JSON은 '{'(0x7B)로 시작하기 때문에 첫 바이트(MAGIC)로 JSON과 구분할 수 있습니다.
+ * 레이아웃을 바꿀 때는 VERSION을 올리고 이전 VERSION의 읽기를 남겨둡니다.
+ */
+public final class MessageDtoBinaryCodec {
+
+    /**
+     * JSON: 기존 JSON 형식으로 저장/전송
+     * BINARY: 이 코덱으로 저장/전송 (읽을 때는 설정과 관계없이 두 형식 모두 지원)
+     */
+    public enum Type { JSON, BINARY }
+
+    public static final byte MAGIC = (byte) 0xC7;
+    public static final byte VERSION = 1;
+
+    private static final List<String> KNOWN_MESSAGE_TYPES = List.of("TEXT", "IMAGE", "RECEIPT", "ENTER", "EXIT", "EXPEL");
+
+    private static final byte TIMESTAMP_EPOCH = 1;
+    private static final byte TIMESTAMP_STRING = 0;
+
+    // 필드 존재 비트
+    private static final int ID = 1;
+    private static final int CHAT_ROOM_ID = 1 << 1;
+    private static final int SENDER_ID = 1 << 2;
+    private static final int MESSAGE_TYPE = 1 << 3;
+    private static final int CONTENT = 1 << 4;
+    private static final int TIMESTAMP = 1 << 5;
+    private static final int UNREAD_COUNT = 1 << 6;
+    private static final int RABBITMQ_TRANSMISSION_STATUS = 1 << 7;
+    private static final int FINAL_TRANSMISSION_STATUS = 1 << 8;
+    private static final int SAVE_STATUS = 1 << 9;
+
+    private MessageDtoBinaryCodec() {
+    }
+
+    /**
+     * @return 바이트 배열이 이 코덱으로 직렬화된 값인지 여부
+     */
+    public static boolean isEncoded(byte[] bytes) {
+        return bytes != null && bytes.length > 1 && bytes[0] == MAGIC;
+    }
+
+    public static byte[] encode(MessageDto messageDto) {
+
+        int presence = 0;
+        if (messageDto.id() != null) presence |= ID;
+        if (messageDto.chatRoomId() != null) presence |= CHAT_ROOM_ID;
+        if (messageDto.senderId() != null) presence |= SENDER_ID;
+        if (messageDto.messageType() != null) presence |= MESSAGE_TYPE;
+        if (messageDto.content() != null) presence |= CONTENT;
+        if (messageDto.timestamp() != null) presence |= TIMESTAMP;
+        if (messageDto.unreadCount() != null) presence |= UNREAD_COUNT;
+        if (messageDto.rabbitMQTransmissionStatus() != null) presence |= RABBITMQ_TRANSMISSION_STATUS;
+        if (messageDto.finalTransmissionStatus() != null) presence |= FINAL_TRANSMISSION_STATUS;
+        if (messageDto.saveStatus() != null) presence |= SAVE_STATUS;
+
+        int booleanValues = 0;
+        if (Boolean.TRUE.equals(messageDto.rabbitMQTransmissionStatus())) booleanValues |= 1;
+        if (Boolean.TRUE.equals(messageDto.finalTransmissionStatus())) booleanValues |= 1 << 1;
+        if (Boolean.TRUE.equals(messageDto.saveStatus())) booleanValues |= 1 << 2;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        out.write(MAGIC);
+        out.write(VERSION);
+        writeVarint(out, presence);
+        out.write(booleanValues);
+
+        if (messageDto.id() != null) writeFixedLong(out, messageDto.id());
+        if (messageDto.chatRoomId() != null) writeVarint(out, zigzag(messageDto.chatRoomId()));
+        if (messageDto.senderId() != null) writeVarint(out, zigzag(messageDto.senderId()));
+        if (messageDto.messageType() != null) writeMessageType(out, messageDto.messageType());
+        if (messageDto.content() != null) writeString(out, messageDto.content());
+        if (messageDto.timestamp() != null) writeTimestamp(out, messageDto.timestamp());
+        if (messageDto.unreadCount() != null) writeVarint(out, zigzag(messageDto.unreadCount()));
+
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException 이 코덱으로 직렬화된 값이 아니거나 지원하지 않는 버전인 경우
+     */
+    public static MessageDto decode(byte[] bytes) {
+
+        if (!isEncoded(bytes)) {
+            throw new IllegalArgumentException("Not a binary encoded MessageDto.");
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported MessageDto codec version: " + version);
+        }
+
+        int presence = (int) readVarint(in);
+        int booleanValues = in.get();
+
+        MessageDto.MessageDtoBuilder builder = MessageDto.builder();
+        if ((presence & ID) != 0) builder.id(in.getLong());
+        if ((presence & CHAT_ROOM_ID) != 0) builder.chatRoomId(unzigzag(readVarint(in)));
+        if ((presence & SENDER_ID) != 0) builder.senderId(unzigzag(readVarint(in)));
+        if ((presence & MESSAGE_TYPE) != 0) builder.messageType(readMessageType(in));
+        if ((presence & CONTENT) != 0) builder.content(readString(in));
+        if ((presence & TIMESTAMP) != 0) builder.timestamp(readTimestamp(in));
+        if ((presence & UNREAD_COUNT) != 0) builder.unreadCount((int) unzigzag(readVarint(in)));
+        if ((presence & RABBITMQ_TRANSMISSION_STATUS) != 0) builder.rabbitMQTransmissionStatus((booleanValues & 1) != 0);
+        if ((presence & FINAL_TRANSMISSION_STATUS) != 0) builder.finalTransmissionStatus((booleanValues & (1 << 1)) != 0);
+        if ((presence & SAVE_STATUS) != 0) builder.saveStatus((booleanValues & (1 << 2)) != 0);
+
+        return builder.build();
+    }
+
+    private static void writeMessageType(ByteArrayOutputStream out, String messageType) {
+
+        int code = KNOWN_MESSAGE_TYPES.indexOf(messageType);
+        out.write(code + 1); // 알 수 없는 타입은 0
+
+        if (code < 0) writeString(out, messageType);
+    }
+
+    private static String readMessageType(ByteBuffer in) {
+
+        int code = in.get();
+        return (code == 0) ? readString(in) : KNOWN_MESSAGE_TYPES.get(code - 1);
+    }
+
+    // LocalDateTime.toString()으로 만든 값만 숫자로 저장 -> 읽었을 때 원래 문자열과 같다.
+    private static void writeTimestamp(ByteArrayOutputStream out, String timestamp) {
+
+        LocalDateTime dateTime = null;
+        try {
+            dateTime = LocalDateTime.parse(timestamp);
+        } catch (DateTimeParseException ignored) {
+        }
+
+        if (dateTime != null && dateTime.toString().equals(timestamp)) {
+            out.write(TIMESTAMP_EPOCH);
+            writeVarint(out, zigzag(dateTime.toEpochSecond(ZoneOffset.UTC)));
+            writeVarint(out, dateTime.getNano());
+        } else {
+            out.write(TIMESTAMP_STRING);
+            writeString(out, timestamp);
+        }
+    }
+
+    private static String readTimestamp(ByteBuffer in) {
+
+        if (in.get() == TIMESTAMP_STRING) return readString(in);
+
+        long epochSecond = unzigzag(readVarint(in));
+        int nano = (int) readVarint(in);
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC).toString();
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+
+        int length = (int) readVarint(in);
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static void writeFixedLong(ByteArrayOutputStream out, long value) {
+
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IllegalArgumentException("Malformed varint.");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
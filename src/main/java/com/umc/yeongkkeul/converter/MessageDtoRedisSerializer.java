@@ -0,0 +1,49 @@
+package com.umc.yeongkkeul.converter;
+
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * MessageDtoRedisSerializer 클래스
+ * MessageDto는 MessageDtoBinaryCodec으로, 그 외의 값은 기존과 같이 JSON으로 직렬화하는 Redis Serializer.
+ *
+ * 역직렬화는 첫 바이트로 형식을 구분하기 때문에, 이미 JSON으로 저장된 메시지도 그대로 읽을 수 있습니다.
+ */
+public class MessageDtoRedisSerializer implements RedisSerializer<Object> {
+
+    private final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+    private final MessageDtoBinaryCodec.Type writeType;
+
+    /**
+     * @param writeType MessageDto를 저장할 형식, JSON이면 기존 형식으로 저장 (이전 버전 서버와 함께 배포되는 동안 사용)
+     */
+    public MessageDtoRedisSerializer(MessageDtoBinaryCodec.Type writeType) {
+        this.writeType = writeType;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+
+        if (writeType == MessageDtoBinaryCodec.Type.BINARY && value instanceof MessageDto messageDto) {
+            return MessageDtoBinaryCodec.encode(messageDto);
+        }
+
+        return jsonSerializer.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+
+        if (MessageDtoBinaryCodec.isEncoded(bytes)) {
+            try {
+                return MessageDtoBinaryCodec.decode(bytes);
+            } catch (RuntimeException e) {
+                throw new SerializationException("Could not decode binary MessageDto.", e);
+            }
+        }
+
+        return jsonSerializer.deserialize(bytes);
+    }
+}
@@ -0,0 +1,66 @@
+package com.umc.yeongkkeul.domain;
+
+import com.umc.yeongkkeul.domain.common.BaseEntity;
+import com.umc.yeongkkeul.domain.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * 채팅 메시지 발행 대기 테이블 (Transactional Outbox)
+ * 채팅방 가입/퇴장/퇴출과 같은 트랜잭션 안에서 저장되고, ChatOutboxPublisher가 ChatMessagePublisher로 발행한 뒤 삭제합니다.
+ * 발행에 실패하면 attempts를 올리고 next_attempt_at을 뒤로 미뤄 다시 시도합니다.
+ * payload를 읽을 수 없거나 재시도 횟수를 넘긴 이벤트는 status를 DEAD로 바꿔 발행 대상에서 제외하고, 원인을 last_error에 남깁니다.
+ */
+@Entity
+@Getter
+@Builder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Table(name = "chat_outbox", indexes = @Index(name = "idx_chat_outbox_status_next_attempt_at", columnList = "status, next_attempt_at"))
+public class ChatOutbox extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // MessageDtoBinaryCodec으로 직렬화한 MessageDto
+    @Lob
+    @Column(name = "payload", nullable = false, columnDefinition = "BLOB")
+    private byte[] payload;
+
+    // 발행을 시도한 횟수
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    // 이 시간 이후에 발행 (발행 중인 이벤트는 lease 만료 시간)
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'PENDING'")
+    @Column(name = "status", nullable = false)
+    private OutboxStatus status;
+
+    // DEAD로 바뀐 이유
+    @Column(name = "last_error")
+    private String lastError;
+
+    /**
+     * 발행에 실패했을 때 다음 시도 시간을 정합니다.
+     */
+    public void retryAt(LocalDateTime nextAttemptAt) {
+        this.attempts++;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    /**
+     * 더 이상 발행을 시도하지 않도록 DEAD로 표시합니다.
+     */
+    public void markDead(String lastError) {
+        this.status = OutboxStatus.DEAD;
+        this.lastError = (lastError != null && lastError.length() > 255) ? lastError.substring(0, 255) : lastError;
+    }
+}
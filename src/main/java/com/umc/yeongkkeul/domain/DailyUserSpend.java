@@ -0,0 +1,45 @@
+package com.umc.yeongkkeul.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * 사용자별 하루 지출 집계 테이블
+ * 매일 배치의 첫 단계(DailyUserSpendTasklet)에서 전날 Expense를 한 번만 집계해 채우고,
+ * 사용자 점수와 채팅방 목표 달성 인원/지출 평균 계산은 Expense 대신 이 테이블을 조인합니다.
+ */
+@Entity
+@Getter
+@Builder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Table(name = "daily_user_spend",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_user_spend_user_day", columnNames = {"user_id", "day"}),
+        indexes = @Index(name = "idx_daily_user_spend_day", columnList = "day"))
+public class DailyUserSpend {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // 집계한 지출 날짜
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    // 하루 지출 합계
+    @Column(name = "total_expenditure", nullable = false)
+    private long totalExpenditure;
+
+    // 무지출 기록 수
+    @Column(name = "no_spending_count", nullable = false)
+    private int noSpendingCount;
+
+    // 지출을 기록한 카테고리 수
+    @Column(name = "category_count", nullable = false)
+    private int categoryCount;
+}
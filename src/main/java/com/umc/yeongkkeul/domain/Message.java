@@ -1,40 +1,43 @@
-/*
-package com.umc.yeongkkeul.domain;
-
-import com.umc.yeongkkeul.domain.common.BaseEntity;
-import jakarta.persistence.*;
-import lombok.*;
-
-@Entity
-@Getter
-@Setter
-@Builder
-@NoArgsConstructor(access = AccessLevel.PROTECTED)
-@AllArgsConstructor
-public class Message extends BaseEntity {
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    // user_id
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
-    private User user;
-
-    // chat_room_id
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "chat_room_id", nullable = false)
-    private ChatRoom chatroom;
-
-    // 채팅 내용
-    private String content;
-
-    // 안읽은 사람 수
-    @Column(name = "unread_count", nullable = false)
-    private Integer unreadCount;
-
-    // 사진
-    @Column(name = "image_url")
-    private String imageUrl;
-}
-*/
+package com.umc.yeongkkeul.domain;
+
+import com.umc.yeongkkeul.domain.common.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 채팅 메시지 보관 테이블
+ * chat.queue Consumer가 배치 단위로 저장하며, Redis에서 밀려난 오래된 메시지를 조회할 때 사용.
+ * 채팅방 삭제나 회원 탈퇴 시에도 기록이 남도록 외래 키 없이 ID만 저장합니다.
+ */
+@Entity
+@Getter
+@Builder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Table(name = "chat_message", indexes = @Index(name = "idx_chat_message_chat_room_id_id", columnList = "chat_room_id, id"))
+public class Message extends BaseEntity {
+
+    // TSID 메시지 ID (MessageDto의 ID를 그대로 사용)
+    @Id
+    private Long id;
+
+    @Column(name = "chat_room_id", nullable = false)
+    private Long chatRoomId;
+
+    @Column(name = "sender_id")
+    private Long senderId;
+
+    // 메시지 타입(텍스트, 사진, 영수증, 입장/퇴장)
+    @Column(name = "message_type", length = 20)
+    private String messageType;
+
+    // 채팅 내용
+    @Column(name = "content", columnDefinition = "TEXT")
+    private String content;
+
+    // 메시지 전송 시간
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
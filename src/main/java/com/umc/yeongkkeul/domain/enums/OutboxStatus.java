@@ -0,0 +1,6 @@
+package com.umc.yeongkkeul.domain.enums;
+
+public enum OutboxStatus {
+    PENDING, // 발행 대기 또는 재시도 중
+    DEAD; // 다시 시도해도 발행할 수 없어 멈춘 이벤트 (payload를 읽을 수 없거나 재시도 횟수 초과)
+}
@@ -0,0 +1,27 @@
+package com.umc.yeongkkeul.repository;
+
+import com.umc.yeongkkeul.domain.ChatOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ChatOutboxRepository extends JpaRepository<ChatOutbox, Long> {
+
+    // 발행할 시간이 된 이벤트를 오래된 순으로 잠금, 다른 서버가 잠근 행과 DEAD 이벤트는 건너뛴다. (MySQL 8 이상)
+    @Query(value = "SELECT * FROM chat_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ChatOutbox> findDueForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // 발행하는 동안 다른 서버가 가져가지 않도록 다음 시도 시간을 lease 만료 시간으로 미룬다.
+    @Modifying
+    @Query("UPDATE ChatOutbox o SET o.nextAttemptAt = :leaseUntil WHERE o.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("DELETE FROM ChatOutbox o WHERE o.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -40,4 +40,15 @@ public interface ChatRoomMembershipRepository extends JpaRepository<ChatRoomMemb
     Optional<ChatRoomMembership> findByChatroom_IdAndUser_Id(Long chatRoomId, Long userId);
 
     List<ChatRoomMembership> findAllByChatroom(ChatRoom chatRoom);
+
+    // 랭킹 캐시 적재용 - 엔티티와 User를 읽지 않고 점수만 조회
+    @Query("SELECT cm.user.id AS userId, cm.userScore AS userScore, cm.yesterdayScore AS yesterdayScore " +
+            "FROM ChatRoomMembership cm WHERE cm.chatroom.id = :chatRoomId")
+    List<MemberScore> findMemberScoresByChatroomId(@Param("chatRoomId") Long chatRoomId);
+
+    interface MemberScore {
+        Long getUserId();
+        Double getUserScore();
+        Double getYesterdayScore();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.umc.yeongkkeul.repository;
+
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+
+import java.util.List;
+
+/**
+ * 채팅 메시지를 JPA 영속성 컨텍스트를 거치지 않고 한 번에 저장하기 위한 Repository
+ */
+public interface MessageBulkRepository {
+
+    /**
+     * 여러 메시지를 하나의 multi-row INSERT로 저장합니다.
+     * 이미 저장된 메시지 ID는 무시하기 때문에 같은 배치가 다시 전달되어도 안전합니다.
+     *
+     * @return 새로 저장된 행의 수
+     */
+    int insertIgnoreAll(List<MessageDto> messageDtos);
+}
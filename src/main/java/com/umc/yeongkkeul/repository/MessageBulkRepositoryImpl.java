@@ -0,0 +1,45 @@
+package com.umc.yeongkkeul.repository;
+
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class MessageBulkRepositoryImpl implements MessageBulkRepository {
+
+    private static final String INSERT_PREFIX =
+            "INSERT IGNORE INTO chat_message (id, chat_room_id, sender_id, message_type, content, sent_at, created_at, updated_at) VALUES ";
+    private static final String VALUES_ROW = "(?, ?, ?, ?, ?, ?, NOW(6), NOW(6))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertIgnoreAll(List<MessageDto> messageDtos) {
+
+        if (messageDtos.isEmpty()) return 0;
+
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        List<Object> params = new ArrayList<>(messageDtos.size() * 6);
+
+        for (int i = 0; i < messageDtos.size(); i++) {
+            MessageDto messageDto = messageDtos.get(i);
+
+            if (i > 0) sql.append(", ");
+            sql.append(VALUES_ROW);
+
+            params.add(messageDto.id());
+            params.add(messageDto.chatRoomId());
+            params.add(messageDto.senderId());
+            params.add(messageDto.messageType());
+            params.add(messageDto.content());
+            params.add(messageDto.timestamp() == null ? null : Timestamp.valueOf(LocalDateTime.parse(messageDto.timestamp())));
+        }
+
+        return jdbcTemplate.update(sql.toString(), params.toArray());
+    }
+}
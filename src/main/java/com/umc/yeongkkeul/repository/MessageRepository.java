@@ -0,0 +1,31 @@
+package com.umc.yeongkkeul.repository;
+
+import com.umc.yeongkkeul.domain.Message;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface MessageRepository extends JpaRepository<Message, Long>, MessageBulkRepository {
+
+    // 주어진 메시지 ID 중 chat_message에 저장된 ID (Redis 정리 전 저장 확인용)
+    @Query("SELECT m.id FROM Message m WHERE m.id IN :messageIds")
+    List<Long> findExistingIds(@Param("messageIds") Collection<Long> messageIds);
+
+    // fromMessageId 이상 toMessageId 미만의 메시지 중 최근 메시지부터 pageable 크기만큼 (최신순)
+    @Query("SELECT m FROM Message m WHERE m.chatRoomId = :chatRoomId AND m.id >= :fromMessageId AND m.id < :toMessageId ORDER BY m.id DESC")
+    List<Message> findPageOrderByIdDesc(@Param("chatRoomId") Long chatRoomId,
+                                        @Param("fromMessageId") Long fromMessageId,
+                                        @Param("toMessageId") Long toMessageId,
+                                        Pageable pageable);
+
+    // afterMessageId 초과 toMessageId 미만의 메시지 중 오래된 메시지부터 pageable 크기만큼 (오래된 순)
+    @Query("SELECT m FROM Message m WHERE m.chatRoomId = :chatRoomId AND m.id > :afterMessageId AND m.id < :toMessageId ORDER BY m.id ASC")
+    List<Message> findPageOrderByIdAsc(@Param("chatRoomId") Long chatRoomId,
+                                       @Param("afterMessageId") Long afterMessageId,
+                                       @Param("toMessageId") Long toMessageId,
+                                       Pageable pageable);
+}
@@ -0,0 +1,290 @@
+package com.umc.yeongkkeul.service;
+
+import com.umc.yeongkkeul.repository.ChatRoomRepository;
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * ChatImageIndex 클래스
+ * 채팅방별 이미지 메시지의 보조 인덱스를 Redis에 저장하는 컴포넌트.
+ *
+ * chat:room:{id}:image:index - Sorted Set, 모든 score는 0이고 멤버는 0으로 자릿수를 맞춘 이미지 메시지 ID
+ * chat:room:{id}:image:key   - Hash, 필드는 인덱스와 같은 문자열 ID, 값은 S3 key
+ *
+ * 이미지 목록은 채팅방의 모든 메시지를 읽지 않고 인덱스 범위 조회로, 이미지 다운로드는 HGET 한 번으로 처리합니다.
+ * 인덱스가 없던 채팅방은 처음 조회할 때 chatImageBackfillExecutor에서 메시지 기록을 읽어 한 번만 채웁니다. (요청 스레드는 기다리지 않음)
+ * 채우는 동안 이미지 목록은 최근 이미지부터 채워진 만큼만 반환하고, 다운로드는 인덱스에 없으면 메시지 한 건을 직접 확인합니다.
+ */
+@Slf4j
+@Component
+public class ChatImageIndex {
+
+    private static final String KEY_PREFIX = "chat:room:";
+    private static final String INDEX_SUFFIX = ":image:index";
+    private static final String KEY_NAME_SUFFIX = ":image:key";
+    private static final String INDEXED_SUFFIX = ":image:indexed"; // 기존 메시지 기록에서 인덱스를 채웠는지 표시
+    private static final String INDEXED = "1";
+    private static final String INDEXING = "indexing";
+    private static final Duration BACKFILL_LEASE = Duration.ofMinutes(10); // 채우던 서버가 중단되면 이 시간 뒤 다시 채움
+    private static final int BACKFILL_PAGE_SIZE = 500;
+
+    // 채우는 중 표시가 남아 있을 때만 추가 (채우는 도중 채팅방이 삭제되어 인덱스가 제거되면 다시 만들지 않음)
+    // ARGV: 메시지 ID와 S3 key를 번갈아, 반환: 1(계속 채움), 0(중단)
+    private static final RedisScript<Long> BACKFILL_ADD_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) ~= '" + INDEXING + "' then return 0 end " +
+            "for i = 1, #ARGV, 2 do " +
+            "  redis.call('ZADD', KEYS[2], 0, ARGV[i]) " +
+            "  redis.call('HSET', KEYS[3], ARGV[i], ARGV[i + 1]) " +
+            "end " +
+            "return 1",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ChatMessageHistoryReader chatMessageHistoryReader;
+    private final ChatRoomRepository chatRoomRepository;
+    private final Executor backfillExecutor;
+
+    public ChatImageIndex(
+            StringRedisTemplate stringRedisTemplate,
+            ChatMessageHistoryReader chatMessageHistoryReader,
+            ChatRoomRepository chatRoomRepository,
+            @Qualifier("chatImageBackfillExecutor") Executor backfillExecutor
+    ) {
+
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.chatMessageHistoryReader = chatMessageHistoryReader;
+        this.chatRoomRepository = chatRoomRepository;
+        this.backfillExecutor = backfillExecutor;
+    }
+
+    /**
+     * 이미지 메시지를 인덱스에 추가합니다.
+     *
+     * @param imageUrl S3에 업로드된 이미지 URL
+     */
+    public void add(Long chatRoomId, Long messageId, String imageUrl) {
+
+        String keyName = toKeyName(imageUrl);
+        if (keyName == null) {
+            log.warn("Skip indexing image message {} of chat room {}: invalid image URL.", messageId, chatRoomId);
+            return;
+        }
+
+        addAll(chatRoomId, Map.of(messageId, keyName));
+    }
+
+    /**
+     * @param beforeMessageId 이 메시지 ID보다 이전 이미지를 조회, null이면 가장 최근 이미지부터
+     * @return 이미지 메시지 ID와 S3 key limit개 (최신순)
+     */
+    public LinkedHashMap<Long, String> findBefore(Long chatRoomId, Long beforeMessageId, int limit) {
+
+        ensureIndexed(chatRoomId);
+
+        Long upperMessageId = (beforeMessageId == null) ? Long.MAX_VALUE : beforeMessageId;
+        Set<String> members = stringRedisTemplate.opsForZSet().reverseRangeByLex(indexKey(chatRoomId),
+                Range.leftUnbounded(Range.Bound.exclusive(ChatMessageStore.toMember(upperMessageId))),
+                Limit.limit().count(limit));
+
+        LinkedHashMap<Long, String> images = new LinkedHashMap<>();
+        if (members == null || members.isEmpty()) return images;
+
+        HashOperations<String, String, String> hashOps = stringRedisTemplate.opsForHash();
+        List<String> keyNames = hashOps.multiGet(keyNameKey(chatRoomId), members);
+
+        Iterator<String> keyNameIterator = keyNames.iterator();
+        for (String member : members) {
+            String keyName = keyNameIterator.next();
+            if (keyName != null) images.put(Long.valueOf(member), keyName);
+        }
+
+        return images;
+    }
+
+    /**
+     * @return 이미지 메시지의 S3 key, 이미지 메시지가 아니거나 없으면 null
+     */
+    public String findKeyName(Long chatRoomId, Long messageId) {
+
+        boolean indexed = ensureIndexed(chatRoomId);
+
+        HashOperations<String, String, String> hashOps = stringRedisTemplate.opsForHash();
+        String keyName = hashOps.get(keyNameKey(chatRoomId), ChatMessageStore.toMember(messageId));
+        if (keyName != null || indexed) return keyName;
+
+        // 인덱스를 채우는 중이면 메시지 한 건만 직접 확인
+        MessageDto messageDto = chatMessageHistoryReader.findById(chatRoomId, messageId);
+        return (messageDto != null && isImage(messageDto)) ? toKeyName(messageDto.content()) : null;
+    }
+
+    /**
+     * 채팅방이 삭제되었을 때 인덱스를 제거합니다.
+     * 롤백되면 인덱스가 남아 있어야 하므로 커밋 이후에 제거합니다.
+     */
+    public void evict(Long chatRoomId) {
+
+        afterCommit(() -> stringRedisTemplate.delete(List.of(indexKey(chatRoomId), keyNameKey(chatRoomId), indexedKey(chatRoomId))));
+    }
+
+    /**
+     * S3 URL에서 S3 key를 추출합니다.
+     * ("https://yeongkkeul-s3.s3.ap-northeast-2.amazonaws.com/chat/badb12fa-..." -> "chat/badb12fa-...")
+     *
+     * @return S3 key, URL 형식이 아니면 null
+     */
+    static String toKeyName(String imageUrl) {
+
+        try {
+            String path = new URL(imageUrl).getPath();
+            return path.startsWith("/") ? path.substring(1) : path;
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+
+    private void addAll(Long chatRoomId, Map<Long, String> keyNames) {
+
+        if (keyNames.isEmpty()) return;
+
+        RedisSerializer<String> serializer = RedisSerializer.string();
+        byte[] indexKey = serializer.serialize(indexKey(chatRoomId));
+        byte[] keyNameKey = serializer.serialize(keyNameKey(chatRoomId));
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            keyNames.forEach((messageId, keyName) -> {
+                byte[] member = serializer.serialize(ChatMessageStore.toMember(messageId));
+                connection.zSetCommands().zAdd(indexKey, 0, member);
+                connection.hashCommands().hSet(keyNameKey, member, serializer.serialize(keyName));
+            });
+            return null;
+        });
+    }
+
+    /**
+     * 인덱스가 없던 채팅방이면 채우는 작업을 chatImageBackfillExecutor에 맡깁니다.
+     * 채우는 중 표시(SET NX)로 여러 요청, 여러 서버에서 한 번만 실행됩니다.
+     *
+     * @return 인덱스가 모두 채워져 있으면 true
+     */
+    private boolean ensureIndexed(Long chatRoomId) {
+
+        String indexedKey = indexedKey(chatRoomId);
+        String state = stringRedisTemplate.opsForValue().get(indexedKey);
+        if (INDEXED.equals(state)) return true;
+        if (state != null) return false;
+
+        if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(indexedKey, INDEXING, BACKFILL_LEASE))) return false;
+
+        try {
+            backfillExecutor.execute(() -> backfill(chatRoomId));
+        } catch (RejectedExecutionException e) {
+            stringRedisTemplate.delete(indexedKey);
+            log.warn("Image index backfill queue is full. Chat room {} will be indexed on a later request.", chatRoomId);
+        }
+        return false;
+    }
+
+    /**
+     * 채팅방의 메시지 기록을 최근 메시지부터 읽어 이미지 메시지를 인덱스에 채웁니다.
+     * 여러 번 실행되어도 결과가 같고, 실패하면 채우는 중 표시를 지워 다음 조회에서 다시 채웁니다.
+     */
+    private void backfill(Long chatRoomId) {
+
+        String indexedKey = indexedKey(chatRoomId);
+
+        try {
+            // 삭제된 채팅방은 인덱스를 만들지 않음
+            if (!chatRoomRepository.existsById(chatRoomId)) {
+                stringRedisTemplate.delete(indexedKey);
+                return;
+            }
+
+            int indexedCount = 0;
+            Long cursor = null;
+
+            while (true) {
+                List<MessageDto> messages = chatMessageHistoryReader.findBefore(chatRoomId, cursor, 0L, BACKFILL_PAGE_SIZE);
+
+                List<String> args = new ArrayList<>();
+                for (MessageDto messageDto : messages) {
+                    if (!isImage(messageDto)) continue;
+
+                    String keyName = toKeyName(messageDto.content());
+                    if (keyName == null) continue;
+
+                    args.add(ChatMessageStore.toMember(messageDto.id()));
+                    args.add(keyName);
+                }
+
+                Long added = stringRedisTemplate.execute(BACKFILL_ADD_SCRIPT,
+                        List.of(indexedKey, indexKey(chatRoomId), keyNameKey(chatRoomId)), args.toArray());
+                if (added == null || added == 0) {
+                    log.info("Stopped indexing images of chat room {}: the index was removed.", chatRoomId);
+                    return;
+                }
+                indexedCount += args.size() / 2;
+
+                if (messages.size() < BACKFILL_PAGE_SIZE) break;
+                cursor = messages.get(messages.size() - 1).id();
+            }
+
+            // 채우는 중 표시가 남아 있을 때만 완료로 바꾼다. (SET XX, TTL 제거)
+            stringRedisTemplate.opsForValue().setIfPresent(indexedKey, INDEXED);
+            log.info("Indexed {} image messages of chat room {}.", indexedCount, chatRoomId);
+        } catch (RuntimeException e) {
+            stringRedisTemplate.delete(indexedKey);
+            log.error("Failed to index images of chat room {}.", chatRoomId, e);
+        }
+    }
+
+    private static boolean isImage(MessageDto messageDto) {
+        return "IMAGE".equalsIgnoreCase(messageDto.messageType());
+    }
+
+    // 롤백된 삭제가 인덱스에 반영되지 않도록 커밋 이후에 실행
+    private void afterCommit(Runnable action) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private String indexKey(Long chatRoomId) {
+        return KEY_PREFIX + chatRoomId + INDEX_SUFFIX;
+    }
+
+    private String keyNameKey(Long chatRoomId) {
+        return KEY_PREFIX + chatRoomId + KEY_NAME_SUFFIX;
+    }
+
+    private String indexedKey(Long chatRoomId) {
+        return KEY_PREFIX + chatRoomId + INDEXED_SUFFIX;
+    }
+}
@@ -0,0 +1,99 @@
+package com.umc.yeongkkeul.service;
+
+import com.umc.yeongkkeul.config.RabbitMQConfig;
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.listener.MethodRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * ChatMessageConsumer 클래스
+ * chat.queue에 쌓인 채팅 메시지를 배치로 받아 MySQL(chat_message)에 저장하는 컴포넌트.
+ *
+ * 메시지는 Redis에 먼저 저장되고 브로드캐스트되기 때문에, MySQL 저장은 전송 경로와 분리되어 뒤에서 처리됩니다.
+ * 저장과 Redis 정리는 ChatMessagePersister에서 처리합니다. (embedded 프로필에서는 이 Consumer 없이 JVM 안에서 저장)
+ *
+ * chat.persistence.shard-count가 1보다 크면 샤드 Queue(chat.queue.0 ~ chat.queue.{n-1})마다 리스너 컨테이너를 하나씩 등록합니다.
+ * 같은 채팅방의 메시지는 같은 샤드로만 들어오고, 샤드 Queue는 single-active-consumer이므로
+ * consumers-per-shard를 늘려도 실제로 받는 Consumer는 하나이고 나머지는 장애 시 이어받는 대기 Consumer입니다.
+ */
+@Slf4j
+@Component
+@Profile("!embedded")
+public class ChatMessageConsumer implements RabbitListenerConfigurer {
+
+    private final ChatMessagePersister chatMessagePersister;
+    private final SimpleRabbitListenerContainerFactory simpleRabbitListenerContainerFactory;
+
+    private final String chatQueueName;
+    private final int shardCount;
+    private final int consumersPerShard;
+
+    public ChatMessageConsumer(
+            ChatMessagePersister chatMessagePersister,
+            SimpleRabbitListenerContainerFactory simpleRabbitListenerContainerFactory,
+            @Value("${rabbitmq.queue.name}") String chatQueueName,
+            @Value("${chat.persistence.shard-count}") int shardCount,
+            @Value("${chat.persistence.consumers-per-shard}") int consumersPerShard
+    ) {
+
+        this.chatMessagePersister = chatMessagePersister;
+        this.simpleRabbitListenerContainerFactory = simpleRabbitListenerContainerFactory;
+        this.chatQueueName = chatQueueName;
+        this.shardCount = shardCount;
+        this.consumersPerShard = consumersPerShard;
+    }
+
+    /**
+     * 컨테이너가 모아서 전달한 메시지를 한 번에 저장합니다.
+     *
+     * @param messageDtos 컨테이너가 모아서 전달한 메시지 목록 (최대 chat.persistence.batch-size개)
+     *
+     * chat.queue는 샤드를 사용하지 않을 때의 Queue이며, 샤드를 사용하면 샤드로 옮기기 전에 남은 메시지만 처리합니다.
+     */
+    @RabbitListener(queues = "${rabbitmq.queue.name}", containerFactory = "simpleRabbitListenerContainerFactory")
+    public void receiveMessages(List<MessageDto> messageDtos) {
+
+        chatMessagePersister.persist(messageDtos);
+    }
+
+    /**
+     * 샤드 Queue마다 receiveMessages를 호출하는 리스너 컨테이너를 등록합니다.
+     */
+    @Override
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+
+        if (shardCount <= 1) return;
+
+        DefaultMessageHandlerMethodFactory messageHandlerMethodFactory = new DefaultMessageHandlerMethodFactory();
+        messageHandlerMethodFactory.afterPropertiesSet();
+
+        Method receiveMessages = ReflectionUtils.findMethod(ChatMessageConsumer.class, "receiveMessages", List.class);
+
+        for (int shard = 0; shard < shardCount; shard++) {
+            MethodRabbitListenerEndpoint endpoint = new MethodRabbitListenerEndpoint();
+            endpoint.setId("chatPersistenceShard" + shard);
+            endpoint.setQueueNames(RabbitMQConfig.shardQueueName(chatQueueName, shard));
+            endpoint.setBean(this);
+            endpoint.setMethod(receiveMessages);
+            endpoint.setMessageHandlerMethodFactory(messageHandlerMethodFactory);
+            endpoint.setBatchListener(true);
+            endpoint.setConcurrency(String.valueOf(consumersPerShard));
+
+            registrar.registerEndpoint(endpoint, simpleRabbitListenerContainerFactory);
+        }
+
+        log.info("Registered chat persistence listeners for {} shard queues.", shardCount);
+    }
+}
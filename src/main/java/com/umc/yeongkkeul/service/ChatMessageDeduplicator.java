@@ -0,0 +1,92 @@
+package com.umc.yeongkkeul.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * ChatMessageDeduplicator 클래스
+ * 클라이언트가 만든 메시지 ID(clientMessageId)로 재전송된 채팅 메시지를 걸러내는 컴포넌트.
+ *
+ * chat:dedupe:{roomId}:{senderId}:{clientMessageId} - String, 값은 서버가 부여한 메시지 ID (window 동안만 유지)
+ *
+ * 재연결 후 같은 프레임을 다시 보내도 Redis 조회 한 번으로 끝나고, 전송/저장/푸시는 처음 한 번만 일어납니다.
+ * 키는 TTL로만 남기 때문에 메모리 사용량은 window 동안 보낸 메시지 수로 제한됩니다.
+ */
+@Slf4j
+@Component
+public class ChatMessageDeduplicator {
+
+    private static final String KEY_PREFIX = "chat:dedupe:";
+    private static final int MAX_CLIENT_MESSAGE_ID_LENGTH = 64;
+
+    // 처음이면 메시지 ID를 기록하고 0, 이미 있으면 기록된 메시지 ID를 반환
+    private static final RedisScript<String> CLAIM_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'EX', ARGV[2]) then return '0' end " +
+            "return redis.call('GET', KEYS[1])",
+            String.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Duration window; // 같은 clientMessageId를 중복으로 보는 시간
+
+    public ChatMessageDeduplicator(
+            StringRedisTemplate stringRedisTemplate,
+            @Value("${chat.message.dedupe-window-seconds}") long windowSeconds
+    ) {
+
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.window = Duration.ofSeconds(windowSeconds);
+    }
+
+    /**
+     * clientMessageId를 메시지 ID와 연결합니다.
+     * clientMessageId가 없거나 Redis에 접근할 수 없으면 새 메시지로 처리합니다.
+     *
+     * @param messageId 새 메시지에 부여할 ID
+     * @return 처음 보낸 메시지이면 null, 재전송이면 처음 부여된 메시지 ID
+     */
+    public Long claim(Long chatRoomId, Long senderId, String clientMessageId, Long messageId) {
+
+        if (!isValid(clientMessageId)) return null;
+
+        try {
+            String result = stringRedisTemplate.execute(CLAIM_SCRIPT,
+                    List.of(key(chatRoomId, senderId, clientMessageId)),
+                    messageId.toString(), String.valueOf(window.toSeconds()));
+
+            if (result == null || "0".equals(result)) return null;
+            return Long.valueOf(result);
+        } catch (RuntimeException e) {
+            log.warn("Failed to check duplicate of client message {}: {}", clientMessageId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 전송에 실패한 메시지의 clientMessageId를 지워 재전송을 받을 수 있게 합니다.
+     */
+    public void release(Long chatRoomId, Long senderId, String clientMessageId) {
+
+        if (!isValid(clientMessageId)) return;
+
+        try {
+            stringRedisTemplate.delete(key(chatRoomId, senderId, clientMessageId));
+        } catch (RuntimeException e) {
+            log.warn("Failed to release client message {}: {}", clientMessageId, e.getMessage());
+        }
+    }
+
+    private boolean isValid(String clientMessageId) {
+        return clientMessageId != null && !clientMessageId.isBlank() && clientMessageId.length() <= MAX_CLIENT_MESSAGE_ID_LENGTH;
+    }
+
+    private String key(Long chatRoomId, Long senderId, String clientMessageId) {
+        return KEY_PREFIX + chatRoomId + ":" + senderId + ":" + clientMessageId;
+    }
+}
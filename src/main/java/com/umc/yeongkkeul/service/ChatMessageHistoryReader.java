@@ -0,0 +1,146 @@
+package com.umc.yeongkkeul.service;
+
+import com.umc.yeongkkeul.converter.ChatMessageConverter;
+import com.umc.yeongkkeul.repository.MessageRepository;
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ChatMessageHistoryReader 클래스
+ * 채팅 메시지를 Redis(최근 메시지)에서 먼저 조회하고, Redis에서 정리된 구간은 MySQL(chat_message)에서 이어서 조회하는 컴포넌트.
+ *
+ * Redis만으로 완전한 구간(ChatMessageStore.findCompleteFromId 이상)은 Redis에서만 조회하고,
+ * 그보다 오래된 구간은 MySQL과 Redis에 남은 미저장 메시지(outbox 재시도 중인 가입/퇴장 메시지 등)를 ID 기준으로 중복 없이 합칩니다.
+ * 조회마다 chat.message.history.reads{tier=hot|archive} 카운터를 올려 Redis 적중률을 확인할 수 있습니다.
+ */
+@Component
+public class ChatMessageHistoryReader {
+
+    private final ChatMessageStore chatMessageStore;
+    private final MessageRepository messageRepository;
+
+    private final Counter hotReadCounter; // Redis만으로 조회를 끝낸 횟수
+    private final Counter archiveReadCounter; // MySQL까지 조회한 횟수
+
+    public ChatMessageHistoryReader(ChatMessageStore chatMessageStore, MessageRepository messageRepository, MeterRegistry meterRegistry) {
+
+        this.chatMessageStore = chatMessageStore;
+        this.messageRepository = messageRepository;
+        this.hotReadCounter = Counter.builder("chat.message.history.reads")
+                .tag("tier", "hot")
+                .description("Redis에서 모두 조회된 채팅 메시지 조회 수")
+                .register(meterRegistry);
+        this.archiveReadCounter = Counter.builder("chat.message.history.reads")
+                .tag("tier", "archive")
+                .description("MySQL까지 조회한 채팅 메시지 조회 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param beforeMessageId 이 ID보다 이전 메시지를 조회, null이면 가장 최근 메시지부터
+     * @param minMessageId 조회할 수 있는 가장 오래된 메시지 ID (입장 메시지 ID 등)
+     * @return ID가 minMessageId 이상, beforeMessageId 미만인 메시지 limit개 (최신순)
+     */
+    public List<MessageDto> findBefore(Long chatRoomId, Long beforeMessageId, Long minMessageId, int limit) {
+
+        Long upperMessageId = (beforeMessageId == null) ? Long.MAX_VALUE : beforeMessageId;
+        List<MessageDto> hotMessages = chatMessageStore.findBefore(chatRoomId, upperMessageId, minMessageId, limit);
+
+        Long completeFromId = chatMessageStore.findCompleteFromId(chatRoomId);
+        if (completeFromId != null && (completeFromId <= minMessageId
+                || (hotMessages.size() >= limit && hotMessages.get(hotMessages.size() - 1).id() >= completeFromId))) {
+            hotReadCounter.increment();
+            return hotMessages;
+        }
+
+        // Redis만으로 완전한 구간은 그대로 사용하고, 그보다 오래된 구간은 MySQL과 Redis에 남은 미저장 메시지를 합쳐 조회
+        Long archiveUpperMessageId = (completeFromId == null) ? upperMessageId : Math.min(upperMessageId, completeFromId);
+        List<MessageDto> messages = new ArrayList<>(limit);
+        List<MessageDto> unpersistedMessages = new ArrayList<>();
+        for (MessageDto hotMessage : hotMessages) {
+            if (hotMessage.id() >= archiveUpperMessageId) messages.add(hotMessage);
+            else unpersistedMessages.add(hotMessage);
+        }
+
+        int remaining = limit - messages.size();
+        List<MessageDto> archivedMessages = messageRepository.findPageOrderByIdDesc(chatRoomId, minMessageId, archiveUpperMessageId, PageRequest.ofSize(remaining)).stream()
+                .map(ChatMessageConverter::toMessageDto)
+                .toList();
+        messages.addAll(merge(archivedMessages, unpersistedMessages, Comparator.comparing(MessageDto::id).reversed(), remaining));
+
+        archiveReadCounter.increment();
+        return messages;
+    }
+
+    /**
+     * @return ID가 afterMessageId보다 큰 메시지 limit개 (오래된 순)
+     */
+    public List<MessageDto> findAfter(Long chatRoomId, Long afterMessageId, int limit) {
+
+        Long completeFromId = chatMessageStore.findCompleteFromId(chatRoomId);
+        if (completeFromId != null && afterMessageId >= completeFromId - 1) {
+            hotReadCounter.increment();
+            return chatMessageStore.findAfter(chatRoomId, afterMessageId, limit);
+        }
+
+        // Redis만으로 완전하지 않은 구간을 MySQL과 Redis에 남은 미저장 메시지를 합쳐 먼저 조회하고, 남은 개수만큼 Redis에서 이어서 조회
+        Long archiveUpperMessageId = (completeFromId == null) ? Long.MAX_VALUE : completeFromId;
+        List<MessageDto> archivedMessages = messageRepository.findPageOrderByIdAsc(chatRoomId, afterMessageId, archiveUpperMessageId, PageRequest.ofSize(limit)).stream()
+                .map(ChatMessageConverter::toMessageDto)
+                .toList();
+        List<MessageDto> unpersistedMessages = chatMessageStore.findBefore(chatRoomId, archiveUpperMessageId, afterMessageId + 1, limit);
+
+        List<MessageDto> messages = new ArrayList<>(merge(archivedMessages, unpersistedMessages, Comparator.comparing(MessageDto::id), limit));
+        if (completeFromId != null && messages.size() < limit) {
+            messages.addAll(chatMessageStore.findAfter(chatRoomId, completeFromId - 1, limit - messages.size()));
+        }
+
+        archiveReadCounter.increment();
+        return messages;
+    }
+
+    /**
+     * MySQL과 Redis에서 조회한 같은 구간의 메시지를 ID 기준으로 중복 없이 합쳐 order 순서로 limit개를 반환합니다.
+     * (Redis의 본문을 우선 사용)
+     */
+    private List<MessageDto> merge(List<MessageDto> archivedMessages, List<MessageDto> hotMessages, Comparator<MessageDto> order, int limit) {
+
+        if (hotMessages.isEmpty()) return archivedMessages.subList(0, Math.min(limit, archivedMessages.size()));
+
+        Map<Long, MessageDto> messagesById = new HashMap<>();
+        archivedMessages.forEach(message -> messagesById.put(message.id(), message));
+        hotMessages.forEach(message -> messagesById.put(message.id(), message));
+
+        return messagesById.values().stream()
+                .sorted(order)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * @return 메시지 ID에 해당하는 메시지, Redis와 MySQL 모두 없으면 null
+     */
+    public MessageDto findById(Long chatRoomId, Long messageId) {
+
+        MessageDto messageDto = chatMessageStore.findById(chatRoomId, messageId);
+        if (messageDto != null) {
+            hotReadCounter.increment();
+            return messageDto;
+        }
+
+        archiveReadCounter.increment();
+        return messageRepository.findById(messageId)
+                .filter(message -> message.getChatRoomId().equals(chatRoomId))
+                .map(ChatMessageConverter::toMessageDto)
+                .orElse(null);
+    }
+}
@@ -0,0 +1,109 @@
+package com.umc.yeongkkeul.service;
+
+import com.umc.yeongkkeul.repository.MessageRepository;
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * ChatMessagePersister 클래스
+ * 모아진 채팅 메시지를 MySQL(chat_message)에 한 번에 저장하고, 저장된 만큼 Redis를 정리하는 컴포넌트.
+ * RabbitMQ Consumer(ChatMessageConsumer)와 embedded 프로필의 저장 큐(EmbeddedChatMessagePublisher)가 함께 사용합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatMessagePersister {
+
+    private final MessageRepository messageRepository;
+    private final ChatMessageStore chatMessageStore;
+
+    /**
+     * 메시지를 INSERT IGNORE로 한 번에 저장합니다.
+     * 같은 메시지가 다시 전달되어도(재전송, 리스너 재시작) 메시지 ID가 같으므로 중복 저장되지 않습니다.
+     */
+    public void persist(List<MessageDto> messageDtos) {
+
+        List<MessageDto> persistableMessages = messageDtos.stream()
+                .filter(Objects::nonNull)
+                .filter(messageDto -> messageDto.id() != null && messageDto.chatRoomId() != null)
+                .toList();
+
+        if (persistableMessages.isEmpty()) return;
+
+        int insertedCount = messageRepository.insertIgnoreAll(persistableMessages);
+        log.debug("Persisted {} of {} chat messages.", insertedCount, persistableMessages.size());
+
+        // 채팅방별로 이번 배치의 가장 최근 메시지 ID 이하에서 정리할 후보를 찾는다.
+        Map<Long, Long> latestMessageIds = persistableMessages.stream()
+                .collect(Collectors.toMap(MessageDto::chatRoomId, MessageDto::id, Math::max));
+        Set<Long> batchMessageIds = persistableMessages.stream()
+                .map(MessageDto::id)
+                .collect(Collectors.toSet());
+
+        latestMessageIds.forEach((chatRoomId, latestMessageId) -> trimPersisted(chatRoomId, latestMessageId, batchMessageIds));
+    }
+
+    /**
+     * 정리 후보 중 가장 오래된 것부터 MySQL 저장이 확인된 메시지까지만 Redis에서 정리합니다.
+     * 미저장 메시지 위의 저장된 메시지를 지우면 Redis의 가장 오래된 ID 이후에 빈 구간이 생겨 조회할 수 없으므로, 첫 미저장 메시지에서 멈춥니다.
+     *
+     * hot-window-days일이 지나도 저장되지 않은 메시지(outbox에서 DEAD 처리된 가입/퇴장/퇴출 메시지 등)는
+     * Redis의 본문을 MySQL에 옮겨 저장된 것으로 보고 정리합니다. (정리가 한 메시지에 막혀 Redis가 계속 커지지 않도록)
+     */
+    private void trimPersisted(Long chatRoomId, Long latestMessageId, Set<Long> batchMessageIds) {
+
+        List<Long> candidateIds = chatMessageStore.findTrimCandidates(chatRoomId, latestMessageId);
+        if (candidateIds.isEmpty()) return;
+
+        // 이번 배치의 메시지는 INSERT IGNORE 이후 저장(또는 이미 저장)된 것이 확실하므로 나머지만 조회
+        List<Long> uncheckedIds = candidateIds.stream()
+                .filter(candidateId -> !batchMessageIds.contains(candidateId))
+                .toList();
+        Set<Long> persistedIds = new HashSet<>(candidateIds);
+        if (!uncheckedIds.isEmpty()) {
+            persistedIds.removeAll(uncheckedIds);
+            persistedIds.addAll(messageRepository.findExistingIds(uncheckedIds));
+        }
+
+        List<Long> stuckIds = candidateIds.stream()
+                .filter(candidateId -> !persistedIds.contains(candidateId) && chatMessageStore.isBeyondHotWindowPeriod(candidateId))
+                .toList();
+        if (!stuckIds.isEmpty()) {
+            archiveStuckMessages(chatRoomId, stuckIds);
+            persistedIds.addAll(stuckIds);
+        }
+
+        List<Long> trimmableIds = new ArrayList<>(candidateIds.size());
+        for (Long candidateId : candidateIds) {
+            if (!persistedIds.contains(candidateId)) break;
+            trimmableIds.add(candidateId);
+        }
+
+        if (trimmableIds.size() < candidateIds.size()) {
+            log.debug("Stopped trimming chat room {} at unpersisted message {}.", chatRoomId, candidateIds.get(trimmableIds.size()));
+        }
+        chatMessageStore.removePersisted(chatRoomId, trimmableIds);
+    }
+
+    // 본문이 Redis에 없는 ID는 어디서도 읽을 수 없으므로 옮기지 않고 함께 정리된다.
+    private void archiveStuckMessages(Long chatRoomId, List<Long> stuckIds) {
+
+        List<MessageDto> stuckMessages = chatMessageStore.findAllById(chatRoomId, stuckIds);
+        if (!stuckMessages.isEmpty()) {
+            messageRepository.insertIgnoreAll(stuckMessages);
+        }
+
+        log.warn("Archived {} unpersisted messages of chat room {} older than the hot window. ({} without body)",
+                stuckMessages.size(), chatRoomId, stuckIds.size() - stuckMessages.size());
+    }
+}
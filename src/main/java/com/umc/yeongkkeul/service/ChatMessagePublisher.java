@@ -0,0 +1,32 @@
+package com.umc.yeongkkeul.service;
+
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ChatMessagePublisher 인터페이스
+ * 채팅 메시지를 채팅방 구독자와 메시지 저장 Consumer에 전달하는 경로.
+ *
+ * 기본은 RabbitMQ(RabbitChatMessagePublisher), embedded 프로필에서는 JVM 안의 Simple Broker와 저장 큐(EmbeddedChatMessagePublisher)를 사용합니다.
+ */
+public interface ChatMessagePublisher {
+
+    /**
+     * 메시지를 전달합니다. 전달 확인을 기다리지 않습니다.
+     */
+    void publish(MessageDto message);
+
+    /**
+     * 여러 메시지(여러 채팅방 포함)를 한 번에 전달합니다. 전달 확인을 기다리지 않습니다.
+     */
+    void publishAll(List<MessageDto> messages);
+
+    /**
+     * 메시지를 전달하고, 브로커가 받았는지 여부를 나중에 확인할 수 있도록 반환합니다.
+     *
+     * @return 브로커가 받으면 true, 거절하면 false로 완료 (전송 중 오류는 예외로 완료)
+     */
+    CompletableFuture<Boolean> publishConfirmed(MessageDto message);
+}
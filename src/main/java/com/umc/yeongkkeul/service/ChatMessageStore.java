@@ -0,0 +1,383 @@
+package com.umc.yeongkkeul.service;
+
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * ChatMessageStore 클래스
+ * 채팅 메시지를 TSID 메시지 ID 기준으로 Redis에 저장하고 조회하는 컴포넌트.
+ *
+ * chat:room:{id}:message:index - Sorted Set, 모든 score는 0이고 멤버는 19자리로 0을 채운 메시지 ID
+ *                                (TSID는 double score의 정밀도(53bit)를 넘기 때문에 사전순(ZRANGEBYLEX) 정렬을 사용)
+ * chat:room:{id}:message:body  - Hash, 필드는 인덱스와 같은 문자열 ID, 값은 MessageDto
+ * chat:room:{id}:message:trimmed - String, Redis에서 정리된 가장 큰 메시지 ID (이 ID보다 큰 메시지는 모두 Redis에 있음)
+ *
+ * "ID X 이후의 메시지", "가입 메시지 ID부터 X까지"와 같은 조회가 O(log n) 범위 조회가 됩니다.
+ * 기존 List 키(chat:room:{id}:message)는 채팅방을 처음 읽을 때 인덱스로 옮겨집니다.
+ *
+ * MySQL에 저장된 메시지는 채팅방마다 최근 hot-window-size개, hot-window-days일 이내의 메시지만 Redis에 남기고 정리합니다.
+ */
+@Slf4j
+@Component
+public class ChatMessageStore {
+
+    private static final String KEY_PREFIX = "chat:room:";
+    private static final String LEGACY_LIST_SUFFIX = ":message";
+    private static final String INDEX_SUFFIX = ":message:index";
+    private static final String BODY_SUFFIX = ":message:body";
+    private static final String TRIMMED_SUFFIX = ":message:trimmed";
+
+    // 정리된 가장 큰 메시지 ID를 더 큰 값으로만 갱신 (같은 자릿수의 문자열이므로 사전순 비교 = 숫자 비교)
+    private static final RedisScript<Long> RAISE_TRIMMED_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('GET', KEYS[1]) " +
+            "if current and current >= ARGV[1] then return 0 end " +
+            "redis.call('SET', KEYS[1], ARGV[1]) return 1",
+            Long.class);
+
+    private static final int ID_WIDTH = 19; // Long.MAX_VALUE의 자릿수
+    private static final int MIGRATION_BATCH_SIZE = 500;
+    private static final int TRIM_BATCH_SIZE = 1000; // 한 번에 정리하는 최대 메시지 수
+
+    // TSID는 2020-01-01T00:00:00Z부터의 밀리초를 상위 42bit에 저장한다.
+    private static final long TSID_EPOCH_MILLIS = 1577836800000L;
+    private static final int TSID_RANDOM_BITS = 22;
+
+    /**
+     * DUAL: 인덱스와 기존 List 키에 함께 저장 (이전 버전 서버와 함께 배포되는 동안 사용)
+     * INDEXED: 인덱스에만 저장하고, 옮겨진 기존 List 키는 삭제
+     */
+    public enum StorageMode { DUAL, INDEXED }
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final StorageMode storageMode;
+    private final int hotWindowSize; // MySQL 저장 이후 Redis에 남겨둘 채팅방별 최근 메시지 수
+    private final Duration hotWindowPeriod; // MySQL 저장 이후 Redis에 남겨둘 메시지의 기간
+
+    // 이 서버에서 기존 List 키 이전 여부를 이미 확인한 채팅방
+    private final Set<Long> migratedChatRoomIds = ConcurrentHashMap.newKeySet();
+
+    public ChatMessageStore(
+            RedisTemplate<String, Object> redisTemplate,
+            StringRedisTemplate stringRedisTemplate,
+            @Value("${chat.message.storage-mode}") StorageMode storageMode,
+            @Value("${chat.message.hot-window-size}") int hotWindowSize,
+            @Value("${chat.message.hot-window-days}") long hotWindowDays
+    ) {
+
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.storageMode = storageMode;
+        this.hotWindowSize = hotWindowSize;
+        this.hotWindowPeriod = Duration.ofDays(hotWindowDays);
+    }
+
+    /**
+     * 메시지를 인덱스와 본문 Hash에 한 번의 파이프라인으로 저장합니다.
+     */
+    public void save(MessageDto messageDto) {
+
+        saveAll(messageDto.chatRoomId(), List.of(messageDto));
+
+        if (storageMode == StorageMode.DUAL) {
+            redisTemplate.opsForList().leftPush(legacyListKey(messageDto.chatRoomId()), messageDto);
+        }
+    }
+
+    /**
+     * 같은 채팅방의 메시지들을 한 번의 파이프라인으로 저장(또는 덮어쓰기)합니다.
+     */
+    public void saveAll(Long chatRoomId, Collection<MessageDto> messages) {
+
+        pipelineSave(Map.of(chatRoomId, messages), false);
+    }
+
+    /**
+     * 여러 채팅방의 메시지들을 한 번의 파이프라인으로 저장합니다. (여러 채팅방에 같은 내용을 보내는 경우)
+     */
+    public void saveAcrossRooms(Collection<MessageDto> messages) {
+
+        Map<Long, List<MessageDto>> messagesByChatRoom = messages.stream()
+                .collect(Collectors.groupingBy(MessageDto::chatRoomId));
+
+        pipelineSave(messagesByChatRoom, storageMode == StorageMode.DUAL);
+    }
+
+    /**
+     * @return 메시지 ID에 해당하는 메시지, 없으면 null
+     */
+    public MessageDto findById(Long chatRoomId, Long messageId) {
+
+        migrateLegacyList(chatRoomId);
+
+        HashOperations<String, String, Object> hashOps = redisTemplate.opsForHash();
+        Object message = hashOps.get(bodyKey(chatRoomId), toMember(messageId));
+
+        return (message instanceof MessageDto messageDto) ? messageDto : null;
+    }
+
+    /**
+     * @return 가장 최근 메시지부터 limit개 (최신순), limit이 음수면 전체
+     */
+    public List<MessageDto> findLatest(Long chatRoomId, int limit) {
+
+        migrateLegacyList(chatRoomId);
+
+        Set<String> members = stringRedisTemplate.opsForZSet().reverseRange(indexKey(chatRoomId), 0, limit < 0 ? -1 : limit - 1);
+        return loadBodies(chatRoomId, members);
+    }
+
+    /**
+     * @return ID가 afterMessageId보다 큰 메시지 limit개 (오래된 순)
+     */
+    public List<MessageDto> findAfter(Long chatRoomId, Long afterMessageId, int limit) {
+
+        migrateLegacyList(chatRoomId);
+
+        Set<String> members = stringRedisTemplate.opsForZSet().rangeByLex(indexKey(chatRoomId),
+                Range.rightUnbounded(Range.Bound.exclusive(toMember(afterMessageId))),
+                Limit.limit().count(limit));
+        return loadBodies(chatRoomId, members);
+    }
+
+    /**
+     * @return ID가 minMessageId 이상, beforeMessageId 미만인 메시지 limit개 (최신순)
+     */
+    public List<MessageDto> findBefore(Long chatRoomId, Long beforeMessageId, Long minMessageId, int limit) {
+
+        migrateLegacyList(chatRoomId);
+
+        Set<String> members = stringRedisTemplate.opsForZSet().reverseRangeByLex(indexKey(chatRoomId),
+                Range.of(Range.Bound.inclusive(toMember(minMessageId)), Range.Bound.exclusive(toMember(beforeMessageId))),
+                Limit.limit().count(limit));
+        return loadBodies(chatRoomId, members);
+    }
+
+    /**
+     * Redis만으로 조회가 완전한 구간의 시작 ID를 반환합니다. 이 ID 이상의 메시지는 모두 Redis에 있습니다.
+     * 정리된 적이 있으면 정리된 가장 큰 ID 다음이고, 없으면 Redis에 남아 있는 가장 오래된 메시지 ID입니다.
+     * 이 ID보다 작은 구간에도 아직 MySQL에 저장되지 않은 메시지가 Redis에 남아 있을 수 있습니다.
+     *
+     * @return 시작 ID, 정리된 적이 없고 메시지도 없으면 null
+     */
+    public Long findCompleteFromId(Long chatRoomId) {
+
+        migrateLegacyList(chatRoomId);
+
+        String trimmedMember = stringRedisTemplate.opsForValue().get(trimmedKey(chatRoomId));
+        if (trimmedMember != null) return Long.parseLong(trimmedMember) + 1;
+
+        Set<String> members = stringRedisTemplate.opsForZSet().range(indexKey(chatRoomId), 0, 0);
+        if (members == null || members.isEmpty()) return null;
+
+        return Long.valueOf(members.iterator().next());
+    }
+
+    /**
+     * 최근 hot-window-size개를 넘거나 hot-window-days일이 지난 메시지 중 persistedMessageId 이하인 메시지 ID를 오래된 순으로 찾습니다.
+     * 후보에는 아직 MySQL에 저장되지 않은 메시지(커밋 이전에 ID를 받고 outbox에서 재시도 중인 가입/퇴장/퇴출 메시지 등)가 섞여 있을 수 있습니다.
+     * 앞에서부터 저장이 확인된 ID까지만(첫 미저장 ID 전까지) removePersisted로 정리해야
+     * 정리된 ID(findCompleteFromId) 아래에 미저장 메시지만 남고, 그 위는 Redis만으로 조회할 수 있습니다.
+     *
+     * @param persistedMessageId 이 채팅방에서 MySQL 저장이 확인된 가장 최근 메시지 ID
+     */
+    public List<Long> findTrimCandidates(Long chatRoomId, Long persistedMessageId) {
+
+        String indexKey = indexKey(chatRoomId);
+        Long size = stringRedisTemplate.opsForZSet().zCard(indexKey);
+        if (size == null || size == 0) return List.of();
+
+        // 기간이 지난 메시지는 개수와 관계없이 정리
+        long expiredBeforeId = minMessageIdAt(Instant.now().minus(hotWindowPeriod));
+        long trimUpToId = Math.min(persistedMessageId, expiredBeforeId - 1);
+        long expiredCount = Optional.ofNullable(stringRedisTemplate.opsForZSet().lexCount(indexKey,
+                Range.leftUnbounded(Range.Bound.inclusive(toMember(trimUpToId))))).orElse(0L);
+
+        // 남은 메시지 중 hot-window-size개를 넘는 메시지는 저장된 범위 안에서 정리
+        long trimCount = Math.max(expiredCount, size - hotWindowSize);
+        if (trimCount <= 0) return List.of();
+
+        Set<String> candidateMembers = stringRedisTemplate.opsForZSet().rangeByLex(indexKey,
+                Range.leftUnbounded(Range.Bound.inclusive(toMember(persistedMessageId))),
+                Limit.limit().count((int) Math.min(trimCount, TRIM_BATCH_SIZE)));
+        if (candidateMembers == null || candidateMembers.isEmpty()) return List.of();
+
+        return candidateMembers.stream().map(Long::valueOf).toList();
+    }
+
+    /**
+     * @return 메시지 ID에 해당하는 메시지 (ID 순서대로, Redis에 본문이 없는 메시지는 제외)
+     */
+    public List<MessageDto> findAllById(Long chatRoomId, Collection<Long> messageIds) {
+
+        if (messageIds.isEmpty()) return List.of();
+
+        Set<String> members = messageIds.stream()
+                .sorted()
+                .map(ChatMessageStore::toMember)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return loadBodies(chatRoomId, members);
+    }
+
+    /**
+     * @return hot-window-days일보다 오래된 메시지 ID인지 여부
+     */
+    public boolean isBeyondHotWindowPeriod(Long messageId) {
+        return messageId < minMessageIdAt(Instant.now().minus(hotWindowPeriod));
+    }
+
+    /**
+     * MySQL 저장이 확인된 메시지를 Redis에서 정리합니다.
+     *
+     * @param messageIds findTrimCandidates로 찾은 ID 중 앞에서부터 이어서 chat_message에 있는 ID
+     */
+    public void removePersisted(Long chatRoomId, Collection<Long> messageIds) {
+
+        if (messageIds.isEmpty()) return;
+
+        Object[] members = messageIds.stream().map(ChatMessageStore::toMember).toArray();
+        stringRedisTemplate.opsForZSet().remove(indexKey(chatRoomId), members);
+        stringRedisTemplate.opsForHash().delete(bodyKey(chatRoomId), members);
+        stringRedisTemplate.execute(RAISE_TRIMMED_SCRIPT, List.of(trimmedKey(chatRoomId)), toMember(Collections.max(messageIds)));
+
+        if (storageMode == StorageMode.DUAL) {
+            long remaining = Optional.ofNullable(stringRedisTemplate.opsForZSet().zCard(indexKey(chatRoomId))).orElse(0L);
+            redisTemplate.opsForList().trim(legacyListKey(chatRoomId), 0, Math.max(remaining, 1) - 1);
+        }
+
+        log.debug("Trimmed {} persisted messages of chat room {} from Redis.", members.length, chatRoomId);
+    }
+
+    /**
+     * 인덱스 순서대로 본문을 HMGET 한 번으로 가져옵니다.
+     */
+    private List<MessageDto> loadBodies(Long chatRoomId, Set<String> members) {
+
+        if (members == null || members.isEmpty()) return List.of();
+
+        HashOperations<String, String, Object> hashOps = redisTemplate.opsForHash();
+        List<Object> bodies = hashOps.multiGet(bodyKey(chatRoomId), members);
+
+        List<MessageDto> messages = new ArrayList<>(bodies.size());
+        for (Object body : bodies) {
+            if (body instanceof MessageDto messageDto) {
+                messages.add(messageDto);
+            } else {
+                log.error("The Message body is missing in chat room {}.", chatRoomId);
+            }
+        }
+
+        return messages;
+    }
+
+    /**
+     * 메시지를 각 채팅방의 인덱스와 본문 Hash에 저장합니다.
+     *
+     * @param includeLegacyList DUAL 모드에서 기존 List 키에도 같은 파이프라인으로 저장할지 여부
+     */
+    @SuppressWarnings("unchecked")
+    private void pipelineSave(Map<Long, ? extends Collection<MessageDto>> messagesByChatRoom, boolean includeLegacyList) {
+
+        if (messagesByChatRoom.values().stream().allMatch(Collection::isEmpty)) return;
+
+        RedisSerializer<String> stringSerializer = RedisSerializer.string();
+        RedisSerializer<Object> bodySerializer = (RedisSerializer<Object>) redisTemplate.getHashValueSerializer();
+        RedisSerializer<Object> legacySerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            messagesByChatRoom.forEach((chatRoomId, messages) -> {
+                byte[] indexKey = stringSerializer.serialize(indexKey(chatRoomId));
+                byte[] bodyKey = stringSerializer.serialize(bodyKey(chatRoomId));
+                byte[] legacyKey = stringSerializer.serialize(legacyListKey(chatRoomId));
+
+                for (MessageDto messageDto : messages) {
+                    byte[] member = stringSerializer.serialize(toMember(messageDto.id()));
+                    connection.zSetCommands().zAdd(indexKey, 0, member);
+                    connection.hashCommands().hSet(bodyKey, member, bodySerializer.serialize(messageDto));
+
+                    if (includeLegacyList) {
+                        connection.listCommands().lPush(legacyKey, legacySerializer.serialize(messageDto));
+                    }
+                }
+            });
+            return null;
+        });
+    }
+
+    /**
+     * 기존 List 키(chat:room:{id}:message)에 남아 있는 메시지를 인덱스로 옮깁니다.
+     * 서버마다 채팅방 당 한 번만 List 키 존재 여부를 확인하며, 옮기는 작업은 여러 번 실행되어도 결과가 같습니다.
+     */
+    private void migrateLegacyList(Long chatRoomId) {
+
+        if (migratedChatRoomIds.contains(chatRoomId)) return;
+
+        String legacyKey = legacyListKey(chatRoomId);
+        Long size = redisTemplate.opsForList().size(legacyKey);
+
+        if (size != null && size > 0) {
+            for (long start = 0; start < size; start += MIGRATION_BATCH_SIZE) {
+                List<Object> legacyMessages = redisTemplate.opsForList().range(legacyKey, start, start + MIGRATION_BATCH_SIZE - 1);
+                if (legacyMessages == null) break;
+
+                saveAll(chatRoomId, legacyMessages.stream()
+                        .filter(MessageDto.class::isInstance)
+                        .map(MessageDto.class::cast)
+                        .toList());
+            }
+
+            if (storageMode == StorageMode.INDEXED) {
+                redisTemplate.delete(legacyKey);
+            }
+
+            log.info("Migrated {} messages of chat room {} from the legacy list.", size, chatRoomId);
+        }
+
+        migratedChatRoomIds.add(chatRoomId);
+    }
+
+    /**
+     * @return instant 이후에 생성된 메시지 ID의 최솟값 (TSID의 시간 부분만 채운 값)
+     */
+    static long minMessageIdAt(Instant instant) {
+        return (instant.toEpochMilli() - TSID_EPOCH_MILLIS) << TSID_RANDOM_BITS;
+    }
+
+    // 사전순 정렬이 숫자 순서와 같도록 0으로 자릿수를 맞춘다.
+    static String toMember(Long messageId) {
+        return String.format("%0" + ID_WIDTH + "d", messageId);
+    }
+
+    private String legacyListKey(Long chatRoomId) {
+        return KEY_PREFIX + chatRoomId + LEGACY_LIST_SUFFIX;
+    }
+
+    private String indexKey(Long chatRoomId) {
+        return KEY_PREFIX + chatRoomId + INDEX_SUFFIX;
+    }
+
+    private String bodyKey(Long chatRoomId) {
+        return KEY_PREFIX + chatRoomId + BODY_SUFFIX;
+    }
+
+    private String trimmedKey(Long chatRoomId) {
+        return KEY_PREFIX + chatRoomId + TRIMMED_SUFFIX;
+    }
+}
@@ -0,0 +1,247 @@
+package com.umc.yeongkkeul.service;
+
+import com.umc.yeongkkeul.converter.MessageDtoBinaryCodec;
+import com.umc.yeongkkeul.domain.ChatOutbox;
+import com.umc.yeongkkeul.domain.enums.OutboxStatus;
+import com.umc.yeongkkeul.repository.ChatOutboxRepository;
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * ChatOutboxPublisher 클래스
+ * 트랜잭션 안에서 chat_outbox에 저장한 채팅 메시지를 뒤에서 ChatMessagePublisher(RabbitMQ)로 발행하는 컴포넌트. (Transactional Outbox)
+ *
+ * 가입/퇴장/퇴출 트랜잭션은 브로커 응답을 기다리지 않고 커밋되며, 커밋된 메시지만 발행됩니다.
+ * 발행은 batch-size개를 한 번에 보낸 뒤 Publisher Confirm을 한꺼번에 기다리고,
+ * ack를 받은 이벤트는 삭제, nack나 시간 초과인 이벤트는 backoff 이후 다시 시도합니다. (at-least-once)
+ * payload를 읽을 수 없는 이벤트(다시 시도해도 실패)는 바로, 발행에 max-attempts번 실패한 이벤트는 DEAD로 표시해 더 이상 시도하지 않습니다.
+ *
+ * 여러 서버가 함께 실행되어도 SELECT ... FOR UPDATE SKIP LOCKED와 lease로 같은 이벤트를 동시에 발행하지 않습니다.
+ *
+ * chat.outbox.published / chat.outbox.retried: 발행 성공 / 재시도 예약 수
+ * chat.outbox.dead-lettered{reason}: DEAD로 표시한 이벤트 수 (decode: payload 오류, max-attempts: 재시도 횟수 초과)
+ * chat.outbox.in-flight: confirm을 기다리는 이벤트 수
+ * chat.outbox.lag: 저장부터 ack까지 걸린 시간
+ */
+@Slf4j
+@Component
+public class ChatOutboxPublisher {
+
+    private final ChatOutboxRepository chatOutboxRepository;
+    private final ChatMessagePublisher chatMessagePublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final Duration confirmTimeout; // 배치의 confirm을 기다리는 최대 시간
+    private final Duration lease; // 발행 중인 이벤트를 다른 서버가 가져가지 않는 시간 (confirmTimeout보다 길게)
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts; // 이 횟수만큼 발행에 실패하면 DEAD
+
+    // confirm을 기다리는 이벤트: outbox ID -> confirm 결과
+    private final Map<Long, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter publishedCounter;
+    private final Counter retriedCounter;
+    private final Counter decodeFailedCounter;
+    private final Counter attemptsExceededCounter;
+    private final Timer lagTimer;
+
+    public ChatOutboxPublisher(
+            ChatOutboxRepository chatOutboxRepository,
+            ChatMessagePublisher chatMessagePublisher,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${chat.outbox.batch-size}") int batchSize,
+            @Value("${chat.outbox.confirm-timeout-ms}") long confirmTimeoutMillis,
+            @Value("${chat.outbox.lease-ms}") long leaseMillis,
+            @Value("${chat.outbox.initial-backoff-ms}") long initialBackoffMillis,
+            @Value("${chat.outbox.max-backoff-ms}") long maxBackoffMillis,
+            @Value("${chat.outbox.max-attempts}") int maxAttempts
+    ) {
+
+        this.chatOutboxRepository = chatOutboxRepository;
+        this.chatMessagePublisher = chatMessagePublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.confirmTimeout = Duration.ofMillis(confirmTimeoutMillis);
+        this.lease = Duration.ofMillis(leaseMillis);
+        this.initialBackoff = Duration.ofMillis(initialBackoffMillis);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMillis);
+        this.maxAttempts = maxAttempts;
+
+        this.publishedCounter = Counter.builder("chat.outbox.published")
+                .description("RabbitMQ에서 ack를 받은 outbox 이벤트 수")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("chat.outbox.retried")
+                .description("nack, 시간 초과, 전송 오류로 재시도를 예약한 outbox 이벤트 수")
+                .register(meterRegistry);
+        this.decodeFailedCounter = Counter.builder("chat.outbox.dead-lettered")
+                .description("발행을 멈추고 DEAD로 표시한 outbox 이벤트 수")
+                .tag("reason", "decode")
+                .register(meterRegistry);
+        this.attemptsExceededCounter = Counter.builder("chat.outbox.dead-lettered")
+                .description("발행을 멈추고 DEAD로 표시한 outbox 이벤트 수")
+                .tag("reason", "max-attempts")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("chat.outbox.lag")
+                .description("outbox 저장부터 RabbitMQ ack까지 걸린 시간")
+                .register(meterRegistry);
+        Gauge.builder("chat.outbox.in-flight", inFlight, Map::size)
+                .description("Publisher Confirm을 기다리는 outbox 이벤트 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 현재 트랜잭션 안에서 발행할 메시지를 저장합니다. 트랜잭션이 롤백되면 발행되지 않습니다.
+     *
+     * @param messageDto 발행할 메시지
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(MessageDto messageDto) {
+
+        chatOutboxRepository.save(ChatOutbox.builder()
+                .payload(MessageDtoBinaryCodec.encode(messageDto))
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now())
+                .status(OutboxStatus.PENDING)
+                .build());
+    }
+
+    /**
+     * 발행할 시간이 된 이벤트를 batch-size개씩 발행합니다.
+     */
+    @Scheduled(fixedDelayString = "${chat.outbox.poll-interval-ms}")
+    public void publishPending() {
+
+        List<ChatOutbox> events = claim();
+        if (events.isEmpty()) return;
+
+        List<ChatOutbox> failedEvents = new ArrayList<>();
+        List<ChatOutbox> deadEvents = new ArrayList<>();
+        List<ChatOutbox> sentEvents = new ArrayList<>();
+
+        // 1. 배치를 모두 보낸다.
+        for (ChatOutbox event : events) {
+            try {
+                inFlight.put(event.getId(), chatMessagePublisher.publishConfirmed(MessageDtoBinaryCodec.decode(event.getPayload())));
+                sentEvents.add(event);
+            } catch (IllegalArgumentException e) {
+                // 다시 읽어도 같은 결과이므로 재시도하지 않는다.
+                log.error("Failed to decode outbox event {}. Mark it dead: {}", event.getId(), e.getMessage());
+                event.markDead("decode: " + e.getMessage());
+                deadEvents.add(event);
+            }
+        }
+
+        // 2. confirm을 한꺼번에 기다린다.
+        List<Long> publishedIds = new ArrayList<>();
+        long deadline = System.nanoTime() + confirmTimeout.toNanos();
+
+        for (ChatOutbox event : sentEvents) {
+            try {
+                long remainingNanos = Math.max(0, deadline - System.nanoTime());
+                boolean ack = inFlight.get(event.getId()).get(remainingNanos, TimeUnit.NANOSECONDS);
+
+                if (ack) {
+                    publishedIds.add(event.getId());
+                    if (event.getCreatedAt() != null) {
+                        lagTimer.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+                    }
+                } else {
+                    log.warn("Outbox event {} was nacked.", event.getId());
+                    failedEvents.add(event);
+                }
+            } catch (ExecutionException e) {
+                log.warn("Failed to send outbox event {}: {}", event.getId(), e.getCause().getMessage());
+                failedEvents.add(event);
+            } catch (TimeoutException e) {
+                log.warn("Outbox event {} was not confirmed in {}ms.", event.getId(), confirmTimeout.toMillis());
+                failedEvents.add(event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failedEvents.add(event);
+            } finally {
+                inFlight.remove(event.getId());
+            }
+        }
+
+        // 3. 결과를 반영한다.
+        int exceededCount = complete(publishedIds, failedEvents, deadEvents);
+        publishedCounter.increment(publishedIds.size());
+        retriedCounter.increment(failedEvents.size() - exceededCount);
+        decodeFailedCounter.increment(deadEvents.size());
+        attemptsExceededCounter.increment(exceededCount);
+    }
+
+    // 발행할 이벤트를 잠그고 lease를 설정한 뒤 바로 커밋 -> 발행하는 동안 DB 커넥션을 잡고 있지 않는다.
+    private List<ChatOutbox> claim() {
+
+        List<ChatOutbox> events = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<ChatOutbox> dueEvents = chatOutboxRepository.findDueForUpdate(now, batchSize);
+
+            if (!dueEvents.isEmpty()) {
+                chatOutboxRepository.lease(dueEvents.stream().map(ChatOutbox::getId).toList(), now.plus(lease));
+            }
+            return dueEvents;
+        });
+
+        return (events == null) ? List.of() : events;
+    }
+
+    // @return 재시도 횟수를 넘겨 DEAD로 표시한 이벤트 수
+    private int complete(List<Long> publishedIds, List<ChatOutbox> failedEvents, List<ChatOutbox> deadEvents) {
+
+        Integer exceededCount = transactionTemplate.execute(status -> {
+            if (!publishedIds.isEmpty()) {
+                chatOutboxRepository.deleteAllByIdIn(publishedIds);
+            }
+
+            chatOutboxRepository.saveAll(deadEvents);
+
+            int exceeded = 0;
+            LocalDateTime now = LocalDateTime.now();
+            for (ChatOutbox event : failedEvents) {
+                event.retryAt(now.plus(backoff(event.getAttempts())));
+
+                if (event.getAttempts() >= maxAttempts) {
+                    log.error("Outbox event {} failed {} times. Mark it dead.", event.getId(), event.getAttempts());
+                    event.markDead("publish failed " + event.getAttempts() + " times");
+                    exceeded++;
+                }
+                chatOutboxRepository.save(event);
+            }
+            return exceeded;
+        });
+
+        return (exceededCount == null) ? 0 : exceededCount;
+    }
+
+    // initialBackoff * 2^attempts, 최대 maxBackoff
+    private Duration backoff(int attempts) {
+
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts, 20));
+        return (backoff.compareTo(maxBackoff) > 0) ? maxBackoff : backoff;
+    }
+}
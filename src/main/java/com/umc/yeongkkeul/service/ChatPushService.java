@@ -0,0 +1,73 @@
+package com.umc.yeongkkeul.service;
+
+import com.umc.yeongkkeul.socket.SocketConnectionTracker;
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ChatPushService 클래스
+ * 채팅 메시지를 받을 사용자 중 오프라인인 사용자에게 푸시 알림을 보내는 서비스 클래스.
+ * 메시지 전송 스레드가 기다리지 않도록 chatPushExecutor에서 비동기로 처리합니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatPushService {
+
+    private final SocketConnectionTracker socketConnectionTracker;
+
+    /**
+     * 수신자들의 온라인 여부를 한 번에 조회하고, 오프라인인 사용자에게 푸시 알림을 보냅니다.
+     *
+     * @param message 전송된 메시지
+     * @param recipientIds 보낸 사용자를 제외한 수신자 ID
+     */
+    @Async("chatPushExecutor")
+    public void pushToOfflineRecipients(MessageDto message, Set<Long> recipientIds) {
+
+        if (recipientIds.isEmpty()) return;
+
+        Set<Long> onlineUserIds = socketConnectionTracker.findOnlineUserIds(recipientIds);
+        List<Long> offlineUserIds = recipientIds.stream()
+                .filter(recipientId -> !onlineUserIds.contains(recipientId))
+                .toList();
+
+        if (offlineUserIds.isEmpty()) return;
+
+        // 오프라인인 경우 FCM 푸시 분기 처리 (아직 FCM 로직은 구현하지 않음)
+        log.info("Users {} are offline. FCM push triggered for message {}.", offlineUserIds, message.id()); // TODO: FCM 전송 로직 추가
+    }
+
+    /**
+     * 여러 메시지(여러 채팅방)의 수신자 온라인 여부를 합쳐서 한 번에 조회하고, 메시지별로 오프라인인 사용자에게 푸시 알림을 보냅니다.
+     *
+     * @param recipientIdsByMessage 메시지 -> 보낸 사용자를 제외한 수신자 ID
+     */
+    @Async("chatPushExecutor")
+    public void pushAllToOfflineRecipients(Map<MessageDto, Set<Long>> recipientIdsByMessage) {
+
+        Set<Long> allRecipientIds = new HashSet<>();
+        recipientIdsByMessage.values().forEach(allRecipientIds::addAll);
+        if (allRecipientIds.isEmpty()) return;
+
+        Set<Long> onlineUserIds = socketConnectionTracker.findOnlineUserIds(allRecipientIds);
+
+        recipientIdsByMessage.forEach((message, recipientIds) -> {
+            List<Long> offlineUserIds = recipientIds.stream()
+                    .filter(recipientId -> !onlineUserIds.contains(recipientId))
+                    .toList();
+
+            if (offlineUserIds.isEmpty()) return;
+
+            log.info("Users {} are offline. FCM push triggered for message {}.", offlineUserIds, message.id()); // TODO: FCM 전송 로직 추가
+        });
+    }
+}
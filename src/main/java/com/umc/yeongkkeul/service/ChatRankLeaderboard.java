@@ -0,0 +1,246 @@
+package com.umc.yeongkkeul.service;
+
+import com.umc.yeongkkeul.repository.ChatRoomMembershipRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.zset.DefaultTuple;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * ChatRankLeaderboard 클래스
+ * 채팅방 참여자의 점수 랭킹을 Redis Sorted Set에 캐싱하는 컴포넌트.
+ *
+ * chat:room:{id}:rank:today     - Sorted Set, 멤버는 사용자 ID, 점수는 ChatRoomMembership.userScore
+ * chat:room:{id}:rank:yesterday - Sorted Set, 점수는 ChatRoomMembership.yesterdayScore
+ *
+ * 순위는 ZREVRANK, 상위 N명은 ZREVRANGE로 조회하고, 캐시가 없는 채팅방은 MySQL에서 점수만 한 번 읽어와 두 랭킹을 함께 채웁니다.
+ * 점수 배치와 가입/퇴장/퇴출은 트랜잭션 커밋 이후에 랭킹에 반영합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatRankLeaderboard {
+
+    private static final String KEY_PREFIX = "chat:room:";
+
+    // 점수는 하루에 한 번 바뀌므로 캐시와 MySQL의 불일치를 하루로 제한
+    private static final Duration LEADERBOARD_TTL = Duration.ofDays(1);
+
+    // 랭킹이 이미 적재되어 있을 때만 추가 -> 일부 멤버만 담긴 랭킹이 생기는 것을 방지
+    private static final RedisScript<Long> ADD_IF_LOADED_SCRIPT = new DefaultRedisScript<>(
+            "local added = 0 " +
+            "for i = 1, #KEYS do " +
+            "  if redis.call('EXISTS', KEYS[i]) == 1 then added = added + redis.call('ZADD', KEYS[i], ARGV[i + 1], ARGV[1]) end " +
+            "end return added",
+            Long.class);
+
+    public enum Board {
+        TODAY(":rank:today"),
+        YESTERDAY(":rank:yesterday");
+
+        private final String keySuffix;
+
+        Board(String keySuffix) {
+            this.keySuffix = keySuffix;
+        }
+    }
+
+    /**
+     * @param rank 1부터 시작하는 순위 (점수가 같으면 사용자 ID가 큰 순서)
+     */
+    public record RankedMember(Long userId, double score, int rank) {
+    }
+
+    /**
+     * 점수 배치에서 갱신된 참여자 한 명의 점수
+     */
+    public record ScoreUpdate(Long chatRoomId, Long userId, Double userScore, Double yesterdayScore) {
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ChatRoomMembershipRepository chatRoomMembershipRepository;
+
+    /**
+     * @param limit 조회할 최대 인원, 0 이하이면 전체
+     * @return 점수 내림차순 참여자 목록
+     */
+    public List<RankedMember> top(Long chatRoomId, Board board, int limit) {
+
+        long end = (limit > 0) ? limit - 1 : -1;
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                stringRedisTemplate.opsForZSet().reverseRangeWithScores(key(chatRoomId, board), 0, end);
+
+        if (tuples == null || tuples.isEmpty()) {
+            List<RankedMember> loaded = load(chatRoomId).get(board);
+            return (limit > 0 && loaded.size() > limit) ? loaded.subList(0, limit) : loaded;
+        }
+
+        List<RankedMember> rankedMembers = new ArrayList<>(tuples.size());
+        for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+            rankedMembers.add(new RankedMember(Long.valueOf(tuple.getValue()),
+                    Objects.requireNonNullElse(tuple.getScore(), 0.0), rankedMembers.size() + 1));
+        }
+        return rankedMembers;
+    }
+
+    /**
+     * @return 1부터 시작하는 순위, 참여자가 아니면 null
+     */
+    public Integer rankOf(Long chatRoomId, Long userId, Board board) {
+
+        String key = key(chatRoomId, board);
+        Long rank = stringRedisTemplate.opsForZSet().reverseRank(key, userId.toString());
+        if (rank != null) return rank.intValue() + 1;
+
+        // 참여자가 아니거나 캐시가 없는 경우
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(key))) return null;
+
+        return load(chatRoomId).get(board).stream()
+                .filter(rankedMember -> rankedMember.userId().equals(userId))
+                .map(RankedMember::rank)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * 점수 배치에서 바뀐 점수를 반영합니다. 랭킹이 적재된 채팅방의 기존 참여자만 갱신합니다. (ZADD XX)
+     */
+    public void updateScores(Collection<ScoreUpdate> scoreUpdates) {
+
+        if (scoreUpdates.isEmpty()) return;
+
+        List<ScoreUpdate> updates = List.copyOf(scoreUpdates);
+        afterCommit(() -> {
+            RedisSerializer<String> serializer = RedisSerializer.string();
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (ScoreUpdate update : updates) {
+                    Long chatRoomId = update.chatRoomId();
+                    byte[] member = serializer.serialize(update.userId().toString());
+
+                    connection.zSetCommands().zAdd(serializer.serialize(key(chatRoomId, Board.TODAY)),
+                            scoreOf(update.userScore()), member, RedisZSetCommands.ZAddArgs.ifExists());
+                    connection.zSetCommands().zAdd(serializer.serialize(key(chatRoomId, Board.YESTERDAY)),
+                            scoreOf(update.yesterdayScore()), member, RedisZSetCommands.ZAddArgs.ifExists());
+                }
+                return null;
+            });
+        });
+    }
+
+    /**
+     * 사용자가 채팅방에 가입했을 때 0점으로 추가합니다. 트랜잭션 안이라면 커밋 이후에 반영됩니다.
+     */
+    public void addMember(Long chatRoomId, Long userId) {
+
+        afterCommit(() -> stringRedisTemplate.execute(ADD_IF_LOADED_SCRIPT,
+                List.of(key(chatRoomId, Board.TODAY), key(chatRoomId, Board.YESTERDAY)),
+                userId.toString(), "0", "0"));
+    }
+
+    /**
+     * 사용자가 채팅방을 퇴장하거나 퇴출되었을 때 랭킹에서 제거합니다.
+     */
+    public void removeMember(Long chatRoomId, Long userId) {
+
+        afterCommit(() -> {
+            for (Board board : Board.values()) {
+                stringRedisTemplate.opsForZSet().remove(key(chatRoomId, board), userId.toString());
+            }
+        });
+    }
+
+    /**
+     * 채팅방이 삭제되었을 때 랭킹 전체를 제거합니다.
+     */
+    public void evict(Long chatRoomId) {
+
+        afterCommit(() -> stringRedisTemplate.delete(List.of(key(chatRoomId, Board.TODAY), key(chatRoomId, Board.YESTERDAY))));
+    }
+
+    // MySQL에서 점수만 읽어 두 랭킹을 함께 채우고, 이번 조회에는 읽은 값으로 응답
+    private Map<Board, List<RankedMember>> load(Long chatRoomId) {
+
+        List<ChatRoomMembershipRepository.MemberScore> memberScores = chatRoomMembershipRepository.findMemberScoresByChatroomId(chatRoomId);
+
+        Map<Board, List<RankedMember>> rankedMembersByBoard = new EnumMap<>(Board.class);
+        rankedMembersByBoard.put(Board.TODAY, rank(memberScores, Board.TODAY));
+        rankedMembersByBoard.put(Board.YESTERDAY, rank(memberScores, Board.YESTERDAY));
+
+        if (memberScores.isEmpty()) return rankedMembersByBoard;
+
+        RedisSerializer<String> serializer = RedisSerializer.string();
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Board board : Board.values()) {
+                byte[] key = serializer.serialize(key(chatRoomId, board));
+                Set<Tuple> tuples = new HashSet<>();
+                for (RankedMember rankedMember : rankedMembersByBoard.get(board)) {
+                    tuples.add(new DefaultTuple(
+                            serializer.serialize(rankedMember.userId().toString()), rankedMember.score()));
+                }
+                connection.zSetCommands().zAdd(key, tuples);
+                connection.keyCommands().expire(key, LEADERBOARD_TTL.toSeconds());
+            }
+            return null;
+        });
+
+        log.debug("Loaded leaderboards of chat room {} ({} members) into Redis.", chatRoomId, memberScores.size());
+
+        return rankedMembersByBoard;
+    }
+
+    // Redis와 같은 순서: 점수 내림차순, 같은 점수는 사용자 ID(문자열) 내림차순
+    private List<RankedMember> rank(List<ChatRoomMembershipRepository.MemberScore> memberScores, Board board) {
+
+        List<ChatRoomMembershipRepository.MemberScore> sorted = new ArrayList<>(memberScores);
+        sorted.sort(Comparator.<ChatRoomMembershipRepository.MemberScore>comparingDouble(memberScore -> score(memberScore, board))
+                .thenComparing(memberScore -> memberScore.getUserId().toString())
+                .reversed());
+
+        List<RankedMember> rankedMembers = new ArrayList<>(sorted.size());
+        for (ChatRoomMembershipRepository.MemberScore memberScore : sorted) {
+            rankedMembers.add(new RankedMember(memberScore.getUserId(), score(memberScore, board), rankedMembers.size() + 1));
+        }
+        return rankedMembers;
+    }
+
+    private double score(ChatRoomMembershipRepository.MemberScore memberScore, Board board) {
+        return scoreOf(board == Board.TODAY ? memberScore.getUserScore() : memberScore.getYesterdayScore());
+    }
+
+    private double scoreOf(Double score) {
+        return (score == null) ? 0.0 : score;
+    }
+
+    // 롤백된 점수/가입/퇴장이 캐시에 남지 않도록 커밋 이후에 실행
+    private void afterCommit(Runnable action) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private String key(Long chatRoomId, Board board) {
+        return KEY_PREFIX + chatRoomId + board.keySuffix;
+    }
+}
@@ -0,0 +1,166 @@
+package com.umc.yeongkkeul.service;
+
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ChatReadWatermarkStore 클래스
+ * 채팅방 참여자별 읽음 워터마크(마지막으로 읽은 메시지 ID)를 Redis Hash(chat:room:{id}:read)에 저장하는 컴포넌트.
+ *
+ * 메시지마다 unreadCount를 갱신하지 않고, 메시지를 내려줄 때 워터마크로부터 안 읽은 사용자 수를 계산합니다.
+ * 따라서 읽음 처리는 읽은 메시지 수와 관계없이 한 번의 쓰기로 끝납니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatReadWatermarkStore {
+
+    private static final String KEY_PREFIX = "chat:room:";
+    private static final String KEY_SUFFIX = ":read";
+
+    // 워터마크는 앞으로만 이동 -> 동시에 읽음 처리가 들어와도 더 작은 값으로 덮어쓰지 않는다.
+    // 값은 0으로 자릿수를 맞춘 메시지 ID이기 때문에 문자열 비교가 숫자 비교와 같다.
+    private static final RedisScript<Long> ADVANCE_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('HGET', KEYS[1], ARGV[1]) " +
+            "if current and current >= ARGV[2] then return 0 end " +
+            "redis.call('HSET', KEYS[1], ARGV[1], ARGV[2]) return 1",
+            Long.class);
+
+    private static final Set<String> UNREAD_COUNTED_TYPES = Set.of("TEXT", "IMAGE", "RECEIPT");
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ChatRoomRosterCache chatRoomRosterCache;
+    private final ChatMessageStore chatMessageStore;
+
+    /**
+     * 가입한 사용자의 워터마크를 가입 메시지 ID로 설정합니다. 트랜잭션 안이라면 커밋 이후에 반영됩니다.
+     */
+    public void initialize(Long chatRoomId, Long userId, Long joinMessageId) {
+
+        ensureSeeded(chatRoomId);
+        afterCommit(() -> stringRedisTemplate.opsForHash().put(key(chatRoomId), userId.toString(), ChatMessageStore.toMember(joinMessageId)));
+    }
+
+    /**
+     * 퇴장하거나 퇴출된 사용자의 워터마크를 제거합니다.
+     */
+    public void remove(Long chatRoomId, Long userId) {
+
+        afterCommit(() -> stringRedisTemplate.opsForHash().delete(key(chatRoomId), userId.toString()));
+    }
+
+    /**
+     * 채팅방이 삭제되었을 때 모든 워터마크를 제거합니다.
+     */
+    public void evict(Long chatRoomId) {
+
+        afterCommit(() -> stringRedisTemplate.delete(key(chatRoomId)));
+    }
+
+    /**
+     * @return 워터마크가 앞으로 이동했으면 true, 이미 더 최근 메시지까지 읽었으면 false
+     */
+    public boolean advance(Long chatRoomId, Long userId, Long messageId) {
+
+        ensureSeeded(chatRoomId);
+        Long updated = stringRedisTemplate.execute(ADVANCE_SCRIPT, List.of(key(chatRoomId)), userId.toString(), ChatMessageStore.toMember(messageId));
+
+        return updated != null && updated == 1L;
+    }
+
+    /**
+     * 워터마크를 기준으로 각 메시지의 안 읽은 사용자 수를 계산해서 반환합니다.
+     * 워터마크를 한 번(HGETALL) 읽고 정렬한 뒤, 메시지마다 이진 탐색으로 계산합니다.
+     */
+    public List<MessageDto> applyUnreadCounts(Long chatRoomId, List<MessageDto> messages) {
+
+        if (messages.isEmpty()) return messages;
+
+        ensureSeeded(chatRoomId);
+        HashOperations<String, String, String> hashOps = stringRedisTemplate.opsForHash();
+        Map<String, String> watermarks = hashOps.entries(key(chatRoomId));
+
+        long[] sortedWatermarks = watermarks.values().stream()
+                .mapToLong(Long::parseLong)
+                .sorted()
+                .toArray();
+
+        return messages.stream()
+                .map(messageDto -> {
+                    if (!UNREAD_COUNTED_TYPES.contains(messageDto.messageType())) return messageDto;
+
+                    int unreadCount = countLessThan(sortedWatermarks, messageDto.id());
+
+                    // 보낸 사람은 안 읽은 사용자에서 제외
+                    String senderWatermark = (messageDto.senderId() == null) ? null : watermarks.get(messageDto.senderId().toString());
+                    if (senderWatermark != null && Long.parseLong(senderWatermark) < messageDto.id()) unreadCount--;
+
+                    return messageDto.toBuilder()
+                            .unreadCount(unreadCount)
+                            .build();
+                })
+                .toList();
+    }
+
+    /**
+     * 워터마크가 없는 기존 채팅방은 현재 참여자들이 가장 최근 메시지까지 읽은 것으로 한 번 초기화합니다.
+     * 이전 방식의 메시지별 unreadCount는 워터마크로 옮길 수 없기 때문에, 과거 메시지가 모두 안 읽음으로 보이지 않도록 합니다.
+     */
+    private void ensureSeeded(Long chatRoomId) {
+
+        String key = key(chatRoomId);
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(key))) return;
+
+        List<MessageDto> latestMessages = chatMessageStore.findLatest(chatRoomId, 1);
+        String seed = ChatMessageStore.toMember(latestMessages.isEmpty() ? 0L : latestMessages.get(0).id());
+
+        for (Long memberId : chatRoomRosterCache.getMemberIds(chatRoomId)) {
+            stringRedisTemplate.opsForHash().putIfAbsent(key, memberId.toString(), seed);
+        }
+
+        log.debug("Seeded read watermarks of chat room {}.", chatRoomId);
+    }
+
+    // sortedValues에서 value보다 작은 값의 개수
+    private int countLessThan(long[] sortedValues, long value) {
+
+        int index = Arrays.binarySearch(sortedValues, value);
+        if (index < 0) return -(index + 1);
+
+        // 같은 값이 여러 개일 수 있으므로 첫 번째 위치로 이동
+        while (index > 0 && sortedValues[index - 1] == value) index--;
+        return index;
+    }
+
+    private void afterCommit(Runnable action) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private String key(Long chatRoomId) {
+        return KEY_PREFIX + chatRoomId + KEY_SUFFIX;
+    }
+}
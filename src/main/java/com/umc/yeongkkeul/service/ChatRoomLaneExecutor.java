@@ -0,0 +1,153 @@
+package com.umc.yeongkkeul.service;
+
+import com.umc.yeongkkeul.apiPayload.code.status.ErrorStatus;
+import com.umc.yeongkkeul.apiPayload.exception.handler.ChatRoomHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * ChatRoomLaneExecutor 클래스
+ * STOMP 채팅 작업을 채팅방 ID 기준으로 고정된 개수의 직렬 레인(단일 스레드 + 제한된 큐)에 나누어 실행하는 컴포넌트.
+ *
+ * 같은 채팅방의 작업은 항상 같은 레인에서 들어온 순서대로 실행되고, 서로 다른 채팅방은 레인 수만큼 병렬로 실행됩니다.
+ * 한 채팅방의 느린 작업(JPA, Redis)은 같은 레인의 채팅방에만 영향을 줍니다.
+ *
+ * 레인의 큐가 가득 차면 offer-timeout 동안 인바운드 스레드를 붙잡아 두어 클라이언트 쪽으로 배압을 전달하고,
+ * 그래도 자리가 나지 않으면 작업을 거절합니다.
+ *
+ * chat.lane.queue.depth{lane}: 레인별 대기 작업 수
+ * chat.lane.queue.wait: 작업이 큐에서 기다린 시간
+ * chat.lane.rejected: 거절된 작업 수
+ */
+@Slf4j
+@Component
+public class ChatRoomLaneExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor[] lanes;
+    private final long offerTimeoutMillis;
+
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    public ChatRoomLaneExecutor(
+            @Value("${chat.lane.count}") int laneCount,
+            @Value("${chat.lane.queue-capacity}") int queueCapacity,
+            @Value("${chat.lane.offer-timeout-ms}") long offerTimeoutMillis,
+            MeterRegistry meterRegistry
+    ) {
+
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.queueWaitTimer = Timer.builder("chat.lane.queue.wait")
+                .description("채팅 작업이 레인 큐에서 기다린 시간")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("chat.lane.rejected")
+                .description("레인 큐가 가득 차서 거절된 채팅 작업 수")
+                .register(meterRegistry);
+
+        this.lanes = new ThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            ThreadPoolExecutor lane = createLane(i, queueCapacity);
+            lanes[i] = lane;
+
+            Gauge.builder("chat.lane.queue.depth", lane, executor -> executor.getQueue().size())
+                    .tag("lane", String.valueOf(i))
+                    .description("레인 큐에서 대기 중인 채팅 작업 수")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 채팅방의 레인에서 작업을 실행합니다.
+     * 작업에서 발생한 예외는 로그로 남긴 뒤 onError로 넘기고, 같은 레인의 다음 작업은 계속 실행됩니다.
+     * 레인 스레드에는 STOMP 요청의 응답 경로가 없으므로, 클라이언트에 알리려면 onError에서 직접 전송해야 합니다.
+     *
+     * @param chatRoomId 채팅방 ID (같은 ID의 작업은 순서대로 실행)
+     * @param onError    작업에서 발생한 예외를 받는 콜백 (레인 스레드에서 실행)
+     * @throws ChatRoomHandler 레인의 큐가 가득 차 offer-timeout 안에 작업을 넣지 못한 경우
+     */
+    public void execute(Long chatRoomId, Runnable task, Consumer<Exception> onError) {
+
+        long submittedAt = System.nanoTime();
+
+        lanes[laneOf(chatRoomId)].execute(() -> {
+            queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("Chat task of chat room {} failed.", chatRoomId, e);
+                notifyError(chatRoomId, onError, e);
+            }
+        });
+    }
+
+    private void notifyError(Long chatRoomId, Consumer<Exception> onError, Exception e) {
+
+        try {
+            onError.accept(e);
+        } catch (Exception callbackException) {
+            log.warn("Error callback of chat room {} failed: {}", chatRoomId, callbackException.getMessage());
+        }
+    }
+
+    private int laneOf(Long chatRoomId) {
+        return Math.floorMod(Long.hashCode(chatRoomId), lanes.length);
+    }
+
+    private ThreadPoolExecutor createLane(int index, int queueCapacity) {
+
+        AtomicInteger threadCount = new AtomicInteger();
+
+        ThreadPoolExecutor lane = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "chat-lane-" + index + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> {
+                    // 큐가 가득 찼을 때 잠시 기다렸다가 다시 넣는다. (인바운드 스레드 배압)
+                    try {
+                        if (!executor.isShutdown() && executor.getQueue().offer(runnable, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                            return;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    rejectedCounter.increment();
+                    log.warn("Chat lane {} is full. Task rejected.", index);
+                    throw new ChatRoomHandler(ErrorStatus._CHATROOM_BUSY);
+                });
+        lane.prestartAllCoreThreads();
+
+        return lane;
+    }
+
+    /**
+     * 종료 시 새 작업은 받지 않고, 큐에 남은 작업은 잠시 동안 마저 실행합니다.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            if (!lane.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Chat lane did not finish in time. {} tasks dropped.", lane.shutdownNow().size());
+            }
+        }
+    }
+}
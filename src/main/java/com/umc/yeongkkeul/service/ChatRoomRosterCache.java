@@ -0,0 +1,168 @@
+package com.umc.yeongkkeul.service;
+
+import com.umc.yeongkkeul.repository.ChatRoomMembershipRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * ChatRoomRosterCache 클래스
+ * 채팅방별 참여자 ID 목록(로스터)을 Redis Set(chat:room:{id}:members)에 캐싱하는 컴포넌트.
+ * 메시지 전송마다 MySQL의 membership 테이블을 조회하지 않도록 참여자 수와 ID를 제공합니다.
+ *
+ * 가입/퇴장/퇴출 시 트랜잭션 커밋 이후에 Set을 갱신하고,
+ * 캐시가 없는 채팅방은 최초 조회 시 MySQL에서 한 번만 읽어와 채웁니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatRoomRosterCache {
+
+    private static final String ROSTER_KEY_PREFIX = "chat:room:";
+    private static final String ROSTER_KEY_SUFFIX = ":members";
+
+    // 캐시 적재와 동시에 가입이 일어나는 경우의 불일치를 제한하기 위한 TTL
+    private static final Duration ROSTER_TTL = Duration.ofMinutes(10);
+
+    // 로스터가 이미 적재되어 있을 때만 추가 -> 일부 멤버만 담긴 Set이 생기는 것을 방지
+    private static final RedisScript<Long> ADD_IF_LOADED_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return redis.call('SADD', KEYS[1], ARGV[1]) end return 0",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ChatRoomMembershipRepository chatRoomMembershipRepository;
+
+    /**
+     * @param chatRoomId 채팅방 ID
+     * @return 채팅방 참여자 ID 집합, 캐시가 없으면 MySQL에서 적재 후 반환
+     */
+    public Set<Long> getMemberIds(Long chatRoomId) {
+
+        Set<String> members = stringRedisTemplate.opsForSet().members(rosterKey(chatRoomId));
+
+        if (members == null || members.isEmpty()) {
+            return load(chatRoomId);
+        }
+
+        return members.stream()
+                .map(Long::valueOf)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * 여러 채팅방의 참여자를 한 번의 파이프라인으로 조회합니다.
+     *
+     * @param chatRoomIds 채팅방 ID 목록
+     * @return 채팅방 ID -> 참여자 ID 집합, 캐시가 없는 채팅방은 MySQL에서 적재 후 반환
+     */
+    public Map<Long, Set<Long>> getMemberIds(Collection<Long> chatRoomIds) {
+
+        List<Long> orderedChatRoomIds = List.copyOf(new LinkedHashSet<>(chatRoomIds));
+        if (orderedChatRoomIds.isEmpty()) return Map.of();
+
+        RedisSerializer<String> serializer = RedisSerializer.string();
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long chatRoomId : orderedChatRoomIds) {
+                connection.setCommands().sMembers(serializer.serialize(rosterKey(chatRoomId)));
+            }
+            return null;
+        });
+
+        Map<Long, Set<Long>> memberIdsByChatRoom = new LinkedHashMap<>();
+        for (int i = 0; i < orderedChatRoomIds.size(); i++) {
+            Long chatRoomId = orderedChatRoomIds.get(i);
+            Collection<?> members = (Collection<?>) results.get(i);
+
+            if (members == null || members.isEmpty()) {
+                memberIdsByChatRoom.put(chatRoomId, load(chatRoomId));
+            } else {
+                memberIdsByChatRoom.put(chatRoomId, members.stream()
+                        .map(member -> Long.valueOf(member.toString()))
+                        .collect(Collectors.toSet()));
+            }
+        }
+
+        return memberIdsByChatRoom;
+    }
+
+    /**
+     * @return 사용자가 채팅방 참여자이면 true, 캐시가 없으면 MySQL에서 적재 후 확인
+     */
+    public boolean isMember(Long chatRoomId, Long userId) {
+
+        if (Boolean.TRUE.equals(stringRedisTemplate.opsForSet().isMember(rosterKey(chatRoomId), userId.toString()))) {
+            return true;
+        }
+
+        return getMemberIds(chatRoomId).contains(userId);
+    }
+
+    /**
+     * 사용자가 채팅방에 가입했을 때 로스터에 추가합니다. 트랜잭션 안이라면 커밋 이후에 반영됩니다.
+     */
+    public void addMember(Long chatRoomId, Long userId) {
+
+        afterCommit(() -> stringRedisTemplate.execute(ADD_IF_LOADED_SCRIPT, List.of(rosterKey(chatRoomId)), userId.toString()));
+    }
+
+    /**
+     * 사용자가 채팅방을 퇴장하거나 퇴출되었을 때 로스터에서 제거합니다.
+     */
+    public void removeMember(Long chatRoomId, Long userId) {
+
+        afterCommit(() -> stringRedisTemplate.opsForSet().remove(rosterKey(chatRoomId), userId.toString()));
+    }
+
+    /**
+     * 채팅방이 삭제되었을 때 로스터 전체를 제거합니다.
+     */
+    public void evict(Long chatRoomId) {
+
+        afterCommit(() -> stringRedisTemplate.delete(rosterKey(chatRoomId)));
+    }
+
+    private Set<Long> load(Long chatRoomId) {
+
+        List<Long> userIds = chatRoomMembershipRepository.findUserIdByChatroomId(chatRoomId);
+        if (userIds.isEmpty()) return Set.of();
+
+        String key = rosterKey(chatRoomId);
+        stringRedisTemplate.opsForSet().add(key, userIds.stream().map(String::valueOf).toArray(String[]::new));
+        stringRedisTemplate.expire(key, ROSTER_TTL);
+
+        log.debug("Loaded roster of chat room {} ({} members) into Redis.", chatRoomId, userIds.size());
+
+        return Set.copyOf(userIds);
+    }
+
+    // 롤백된 가입/퇴장이 캐시에 남지 않도록 커밋 이후에 실행
+    private void afterCommit(Runnable action) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private String rosterKey(Long chatRoomId) {
+        return ROSTER_KEY_PREFIX + chatRoomId + ROSTER_KEY_SUFFIX;
+    }
+}
@@ -20,7 +20,6 @@ import com.umc.yeongkkeul.repository.ChatRoomMembershipRepository;
 import com.umc.yeongkkeul.repository.ChatRoomRepository;
 import com.umc.yeongkkeul.repository.ExpenseRepository;
 import com.umc.yeongkkeul.repository.UserRepository;
-import com.umc.yeongkkeul.socket.SocketConnectionTracker;
 import com.umc.yeongkkeul.web.dto.chat.*;
 import com.umc.yeongkkeul.repository.*;
 import com.umc.yeongkkeul.web.dto.chat.ChatRoomDetailRequestDto;
@@ -29,22 +28,17 @@ import com.umc.yeongkkeul.web.dto.chat.MessageDto;
 import com.umc.yeongkkeul.web.dto.chat.ReceiptMessageDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.AmqpException;
-import org.springframework.amqp.rabbit.connection.CorrelationData;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.ListOperations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpRange;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -67,9 +61,11 @@ public class ChatService {
     private final ExpenseRepository expenseRepository;
     private final UuidRepository uuidRepository;
 
-    private final RabbitTemplate rabbitTemplate; // RabbitMQ를 통해 메시지를 전송하는 템플릿
+    private final ChatMessagePublisher chatMessagePublisher; // 채팅 메시지 발행 (RabbitMQ 또는 embedded 프로필의 JVM 내부 전달)
     private final SimpMessagingTemplate messagingTemplate; // 내장 STOMP를 통해 메시지를 전송하는 템플릿
-    private final RedisTemplate<String, Object> redisTemplate; // Redis에 메시지를 저장하고 조회하는 템플릿
+    private final ChatMessageStore chatMessageStore; // Redis에 메시지를 메시지 ID 기준으로 저장하고 조회
+    private final ChatMessageHistoryReader chatMessageHistoryReader; // Redis에서 정리된 메시지는 MySQL에서 이어서 조회
+    private final ChatImageIndex chatImageIndex; // 채팅방별 이미지 메시지 인덱스
     private final AmazonS3Manager amazonS3Manager;
 
     // 기본 이미지 URL
@@ -77,107 +73,155 @@ public class ChatService {
             "https://yeongkkeul-s3.s3.ap-northeast-2.amazonaws.com/chatroom-profile/basic-profile.png";
 
 
-    private final String ROUTING_PREFIX_KEY = "chat.room."; // ROUTING KEY 접미사
     private final String STOMP_SETTING_PREFIX = "/topic/setting.room.";
+
+    // 동기화 한 번에 반환하는 최대 메시지 수 (메시지 기록 조회 API의 최대 limit과 같음)
+    private final int SYNC_MESSAGE_LIMIT = 100;
     private final String STOMP_READ_PREFIX = "/topic/read.room.";
 
-    @Value("${rabbitmq.exchange.name}")
-    private String CHAT_EXCHANGE_NAME; // RabbitMQ Exchange 이름
+    private final ChatPushService chatPushService; // 오프라인 수신자 푸시 알림 (비동기)
+
+    // 채팅방 참여자 ID/인원 캐시 - 메시지 전송 시 MySQL 조회를 하지 않기 위함
+    private final ChatRoomRosterCache chatRoomRosterCache;
+
+    // 채팅방별 점수 랭킹 캐시 - 가입/퇴장/퇴출 시 함께 갱신
+    private final ChatRankLeaderboard chatRankLeaderboard;
 
-    // SocketConnectionTracker를 추가하여 온라인 상태를 확인할 수 있도록 함
-    private final SocketConnectionTracker socketConnectionTracker;
+    // 참여자별 읽음 워터마크 - 안 읽은 사용자 수는 메시지를 내려줄 때 계산
+    private final ChatReadWatermarkStore chatReadWatermarkStore;
+
+    // 가입/퇴장/퇴출 메시지를 트랜잭션과 함께 저장하고 뒤에서 RabbitMQ로 발행
+    private final ChatOutboxPublisher chatOutboxPublisher;
+
+    // clientMessageId로 재전송된 메시지를 걸러냄
+    private final ChatMessageDeduplicator chatMessageDeduplicator;
 
     private final int CHATROOM_PAGING_SIZE = 20; // 한 페이지 당 최대 30개를 조회
 
     /**
      * 오픈 채팅방에 메시지를 전송하는 통합 메서드.
      * 온라인 수신자에게는 RabbitMQ를 통해 실시간 전송,
-     * 오프라인 수신자에게는 FCM 푸시 분기 처리를 수행합니다.
+     * 오프라인 수신자에게는 FCM 푸시 분기 처리를 비동기로 수행합니다.
+     *
+     * clientMessageId가 있으면 dedupe-window 안에 같은 ID로 다시 보낸 메시지는 전송하지 않습니다. (재연결 후 재전송)
+     *
+     * @return 전송한 메시지, 이미 전송된 메시지의 재전송이면 비어 있음
      */
-    @Transactional
-    public MessageDto sendMessage(MessageDto messageDto) {
+    public Optional<MessageDto> sendMessage(MessageDto messageDto) {
 
-        int userCount = chatRoomMembershipRepository.findAllByChatroomId(messageDto.chatRoomId()).size();
+        Long messageId = TsidCreator.getTsid().toLong();
 
-        MessageDto message = MessageDto.builder()
-                .id(TsidCreator.getTsid().toLong()) // TSID ID 생성기, 시간에 따라 ID에 영향이 가고 최신 데이터일수록 ID 값이 커진다.
+        // 재전송이면 Redis 조회 한 번으로 끝낸다.
+        Long originalMessageId = chatMessageDeduplicator.claim(messageDto.chatRoomId(), messageDto.senderId(), messageDto.clientMessageId(), messageId);
+        if (originalMessageId != null) {
+            log.debug("Duplicate client message {} (message ID {}) in chat room {}.", messageDto.clientMessageId(), originalMessageId, messageDto.chatRoomId());
+            return Optional.empty();
+        }
+
+        // 해당 채팅방의 모든 멤버 ID (Redis 로스터 캐시, 캐시가 없을 때만 MySQL 조회)
+        Set<Long> memberIds;
+        MessageDto message;
+        try {
+            memberIds = chatRoomRosterCache.getMemberIds(messageDto.chatRoomId());
+            message = toOutgoingMessage(messageId, messageDto, memberIds);
+
+            // 기존 RabbitMQ를 통한 실시간 메시지 전송 (온라인 구독자 대상) -> 온라인이면 sub 정보 남아있고, 오프라인이면 휘발돼서 상관없음
+            chatMessagePublisher.publish(message);
+        } catch (RuntimeException e) {
+            // 전송하지 못한 메시지는 클라이언트가 다시 보낼 수 있도록 기록을 지운다.
+            chatMessageDeduplicator.release(messageDto.chatRoomId(), messageDto.senderId(), messageDto.clientMessageId());
+            throw e;
+        }
+
+        // 보낸 사용자를 제외한 멤버 중 오프라인인 사용자에게 FCM 푸시 처리 (비동기, 온라인 여부는 한 번에 조회)
+        Set<Long> recipientIds = memberIds.stream()
+                .filter(memberId -> !memberId.equals(message.senderId()))
+                .collect(Collectors.toSet());
+        chatPushService.pushToOfflineRecipients(message, recipientIds);
+
+        return Optional.of(message);
+    }
+
+    /**
+     * 전송할 메시지에 ID, 타임스탬프, 안 읽은 사용자 수를 채웁니다.
+     *
+     * @param messageId TSID 메시지 ID, 시간에 따라 ID에 영향이 가고 최신 데이터일수록 ID 값이 커진다.
+     */
+    private MessageDto toOutgoingMessage(Long messageId, MessageDto messageDto, Set<Long> memberIds) {
+
+        return MessageDto.builder()
+                .id(messageId)
+                .clientMessageId(messageDto.clientMessageId()) // 보낸 클라이언트가 자신의 메시지를 찾을 수 있도록 그대로 전달
                 .chatRoomId(messageDto.chatRoomId())
                 .senderId(messageDto.senderId())
                 .messageType(messageDto.messageType())
                 .content(messageDto.content())
                 .timestamp(LocalDateTime.now().toString())
-                .unreadCount(userCount - 1)
+                .unreadCount(memberIds.size() - 1)
                 .rabbitMQTransmissionStatus(true)
                 .finalTransmissionStatus(true)
                 .saveStatus(true)
                 .build();
-
-        // 기존 RabbitMQ를 통한 실시간 메시지 전송 (온라인 구독자 대상) -> 온라인이면 sub 정보 남아있고, 오프라인이면 휘발돼서 상관없음
-        rabbitTemplate.convertAndSend(CHAT_EXCHANGE_NAME, ROUTING_PREFIX_KEY + message.chatRoomId(), message, new CorrelationData(UUID.randomUUID().toString()));
-
-        // 해당 채팅방의 모든 멤버 조회 (MySQL의 membership 테이블)
-        List<ChatRoomMembership> memberships = chatRoomMembershipRepository.findByChatroomIdOrderByUserScoreDesc(message.chatRoomId());
-
-        // 각 멤버에 대해 온라인 상태 확인 후, 오프라인이면 FCM 푸시 처리 (현재는 로그 출력)
-        for (ChatRoomMembership membership : memberships) {
-            Long memberId = membership.getUser().getId();
-            // 보낸 사용자는 제외
-            if (memberId.equals(message.senderId())) {
-                continue;
-            }
-
-            if (!socketConnectionTracker.isUserOnline(memberId)) {
-                // 오프라인인 경우 FCM 푸시 분기 처리 (아직 FCM 로직은 구현하지 않음)
-                log.info("User {} is offline. FCM push triggered.", memberId); // TODO: FCM 전송 로직 추가
-            }
-        }
-
-        return message;
     }
 
     /**
      * 사용자가 채팅방에 입장했을 때의 메시지를 전송.
-     * 입장 메시지도 RabbitMQ를 통해 해당 채팅방에 있는 모든 클라이언트로 전송.
+     * 입장 메시지는 현재 트랜잭션의 outbox에 저장되고, 커밋 이후 ChatOutboxPublisher가 RabbitMQ로 전송.
      *
      * @param messageDto 전송할 메시지 정보
      */
     private void enterMessage(MessageDto messageDto) {
 
-        rabbitTemplate.convertAndSend(CHAT_EXCHANGE_NAME, ROUTING_PREFIX_KEY + messageDto.chatRoomId(), messageDto, new CorrelationData(UUID.randomUUID().toString()));
-        messagingTemplate.convertAndSend(STOMP_SETTING_PREFIX + messageDto.chatRoomId(), new ChatSettingResponseDto(true));
+        chatOutboxPublisher.enqueue(messageDto);
+        afterCommit(() -> messagingTemplate.convertAndSend(STOMP_SETTING_PREFIX + messageDto.chatRoomId(), new ChatSettingResponseDto(true)));
     }
 
     /**
      * 사용자가 채팅방을 퇴장했을 때의 메시지를 전송.
-     * 퇴장 메시지도 RabbitMQ를 통해 해당 채팅방에 있는 모든 클라이언트로 전송.
+     * 퇴장 메시지는 현재 트랜잭션의 outbox에 저장되고, 커밋 이후 ChatOutboxPublisher가 RabbitMQ로 전송.
      *
      * @param messageDto 전송할 메시지 정보
      */
     public void exitMessage(MessageDto messageDto) {
 
-        rabbitTemplate.convertAndSend(CHAT_EXCHANGE_NAME, ROUTING_PREFIX_KEY + messageDto.chatRoomId(), messageDto, new CorrelationData(UUID.randomUUID().toString()));
-        messagingTemplate.convertAndSend(STOMP_SETTING_PREFIX + messageDto.chatRoomId(), new ChatSettingResponseDto(true));
+        chatOutboxPublisher.enqueue(messageDto);
+        afterCommit(() -> messagingTemplate.convertAndSend(STOMP_SETTING_PREFIX + messageDto.chatRoomId(), new ChatSettingResponseDto(true)));
     }
 
     /**
-     * 특정 채팅방의 모든 메시지를 조회 - 테스트 용도.
+     * 채팅방 메시지를 커서 기준으로 limit개씩 조회
+     * after가 있으면 after 이후의 메시지를 오래된 순으로, 없으면 before(없으면 가장 최근) 이전의 메시지를 최신순으로 조회합니다.
+     * 입장 메시지 이전의 채팅 내역은 조회할 수 없습니다.
      *
-     * @param chatRoomId 조회할 채팅방 ID
-     * @return List<MessageDto> 채팅방의 메시지 리스트
+     * @param beforeMessageId 이 메시지 ID보다 이전 메시지를 조회
+     * @param afterMessageId 이 메시지 ID보다 이후 메시지를 조회
+     * @param limit 한 번에 조회할 메시지 수
      */
-    public List<MessageDto> getMessages(Long chatRoomId) {
+    public ChatMessagePageResponseDto getMessagePage(Long userId, Long chatRoomId, Long beforeMessageId, Long afterMessageId, int limit) {
 
-        String redisKey = "chat:room:" + chatRoomId + ":message";
-        List<Object> messageList = redisTemplate.opsForList().range(redisKey, 0, -1);
+        ChatRoomMembership chatRoomMembership = chatRoomMembershipRepository.findByUserIdAndChatroomId(userId, chatRoomId)
+                .orElseThrow(() -> new ChatRoomMembershipHandler(ErrorStatus._CHATROOMMEMBERSHIP_NOT_FOUND));
 
-        return messageList.stream()
-                .map(object -> (MessageDto) object)
-                .toList();
+        Long minMessageId = (chatRoomMembership.getJoinMessageId() == null) ? 0L : chatRoomMembership.getJoinMessageId();
+
+        // 다음 페이지 존재 여부를 알기 위해 하나 더 조회
+        List<MessageDto> messages = (afterMessageId != null)
+                ? chatMessageHistoryReader.findAfter(chatRoomId, Math.max(afterMessageId, minMessageId - 1), limit + 1)
+                : chatMessageHistoryReader.findBefore(chatRoomId, beforeMessageId, minMessageId, limit + 1);
+
+        boolean hasNext = messages.size() > limit;
+        if (hasNext) messages = messages.subList(0, limit);
+
+        Long nextCursor = hasNext ? messages.get(messages.size() - 1).id() : null;
+
+        return new ChatMessagePageResponseDto(chatReadWatermarkStore.applyUnreadCounts(chatRoomId, messages), hasNext, nextCursor);
     }
 
     /**
      * 특정 채팅방 클라이언트에서 업데이트 되지 않은 메시지를 조회
      * chatRoomId르 가진 채팅방의 클라이언트의 채팅 내역과 서버의 채팅 내역을 동기화 하는 메서드
+     * 최근 메시지부터 최대 SYNC_MESSAGE_LIMIT개만 반환하므로, 응답이 가득 차면 클라이언트는 가장 오래된 메시지 ID를 before로
+     * 메시지 기록 조회(getMessagePage)를 이어서 호출합니다.
      *
      * @param userId
      * @param chatRoomId
@@ -186,8 +230,6 @@ public class ChatService {
      */
     public List<MessageDto> synchronizationChatMessages(Long userId, Long chatRoomId, Long lastClientMessageId) {
 
-        List<MessageDto> resultMessageList = new ArrayList<>();
-
         ChatRoomMembership chatRoomMembership = chatRoomMembershipRepository.findByUserIdAndChatroomId(userId, chatRoomId)
                 .orElseThrow();
 
@@ -195,40 +237,11 @@ public class ChatService {
         // 이전의 채팅 내역은 못본다.
         Long joinServerMessageId = chatRoomMembership.getJoinMessageId();
 
-        String redisKey = "chat:room:" + chatRoomId + ":message";
-        ListOperations<String, Object> listOps = redisTemplate.opsForList();
-        long messageSize = listOps.size(redisKey);
-
-        // 30개씩 읽어오며, ID를 찾을 때까지 반복
-        final int REDIS_BATCH_SIZE = 30;
-        for (long start = 0; start < messageSize; start += REDIS_BATCH_SIZE) {
-
-            long end = start + REDIS_BATCH_SIZE - 1;
-            if (end >= messageSize) end = messageSize - 1;
-
-            List<Object> messageList = redisTemplate.opsForList().range(redisKey, start, end);
-
-            // 읽어온 메시지들에서 lastClientMessageId를 포함하는 메시지 찾기
-            for (Object message : messageList) {
-                if (message != null) {
-
-                    MessageDto messageDto = (MessageDto) message;
-                    resultMessageList.add(messageDto);
-
-                    // 최신 메시지일 수록 ID값이 커지고 현재 탐색한 메시지가 채팅방 입장 메시지보다 작다는 것은 채팅방 이전의 메시지를 본다는 것이기에 반환해준다.
-                    if (messageDto.id() < joinServerMessageId) return resultMessageList;
-
-                    if (Objects.equals(messageDto.id(), lastClientMessageId)) {
-                        return resultMessageList;
-                    }
-                } else {
-                    log.error("The Message is NULL.");
-                    return null;
-                }
-            }
-        }
+        // 클라이언트의 마지막 메시지와 입장 메시지 중 더 최근 것부터 최신 메시지까지 최근 메시지부터 조회 (최신순)
+        Long fromMessageId = (joinServerMessageId == null) ? lastClientMessageId : Math.max(lastClientMessageId, joinServerMessageId);
 
-        return resultMessageList;
+        List<MessageDto> messages = chatMessageHistoryReader.findBefore(chatRoomId, null, fromMessageId, SYNC_MESSAGE_LIMIT);
+        return chatReadWatermarkStore.applyUnreadCounts(chatRoomId, messages);
     }
 
     /**
@@ -302,83 +315,29 @@ public class ChatService {
                 .build();
     }
 
-    @Transactional
-    public void readMessage(Long chatRoomId, Long lastClientMessageId, Long recentClientMessageId) {
-
-        String redisKey = "chat:room:" + chatRoomId + ":message";
-        ListOperations<String, Object> listOps = redisTemplate.opsForList();
-        long messageSize = listOps.size(redisKey);
-
-        final int REDIS_BATCH_SIZE = 30;
-        boolean updateStatus = false;
-
-        for (long start = 0; start < messageSize; start += REDIS_BATCH_SIZE) {
-
-            long end = Math.min(start + REDIS_BATCH_SIZE - 1, messageSize - 1);
-
-            List<Object> messageList = redisTemplate.opsForList().range(redisKey, start, end);
-
-            for (int i = 0; i < messageList.size(); i++) {
-                Object messageObj = messageList.get(i);
-                if (messageObj == null) {
-                    log.error("The Message is NULL at index {}", start + i);
-                    continue;
-                }
-
-                // 역직렬화 처리
-                MessageDto messageDto;
-                if (messageObj instanceof MessageDto) {
-                    messageDto = (MessageDto) messageObj;
-                } else {
-                    continue;
-                }
-
-                if (messageDto.id().equals(recentClientMessageId)) {
-                    updateStatus = true;
-                }
-
-                if (messageDto.id() < recentClientMessageId && updateStatus == false) {
-                    log.error("Start Message Read Error!");
-                    return;
-                }
-
-                // 메시지 ID 체크 후 종료
-                if (messageDto.id() <= lastClientMessageId) {
-
-                    // 최종 읽음 상태를 포함한 응답 객체 생성
-                    ReadMessageResponseDto readMessageResponseDto = ReadMessageResponseDto.builder()
-                            .startMessageId(lastClientMessageId.toString())
-                            .endMessageId(recentClientMessageId.toString())
-                            .build();
-
-                    // RabbitMQ에 읽음 상태 정보 전송
-                    messagingTemplate.convertAndSend(STOMP_READ_PREFIX + chatRoomId, readMessageResponseDto);
-
-                    return;
-                }
-
-                if (!messageDto.messageType().equals("TEXT") && !messageDto.messageType().equals("IMAGE") && !messageDto.messageType().equals("RECEIPT")) {
-                    continue;
-                }
-
-                if (updateStatus) {
-                    messageDto = MessageDto.builder()
-                            .id(messageDto.id())
-                            .chatRoomId(messageDto.chatRoomId())
-                            .senderId(messageDto.senderId())
-                            .messageType(messageDto.messageType())
-                            .content(messageDto.content())
-                            .timestamp(messageDto.timestamp())
-                            .unreadCount(messageDto.unreadCount() > 0 ? messageDto.unreadCount() - 1 : 0)
-                            .rabbitMQTransmissionStatus(messageDto.rabbitMQTransmissionStatus())
-                            .finalTransmissionStatus(messageDto.finalTransmissionStatus())
-                            .saveStatus(messageDto.saveStatus())
-                            .build();
-
-                    listOps.set(redisKey, start + i, messageDto); // Redis 리스트 업데이트
-                }
-            }
+    /**
+     * userId 사용자의 읽음 워터마크를 recentClientMessageId로 이동.
+     * 읽은 메시지 수와 관계없이 Redis 쓰기는 한 번이며, 워터마크가 이동했을 때만 읽음 이벤트를 전송합니다.
+     *
+     * @param lastClientMessageId 이전에 마지막으로 읽은 메시지 ID
+     * @param recentClientMessageId 이번에 마지막으로 읽은 메시지 ID
+     */
+    public void readMessage(Long chatRoomId, Long userId, Long lastClientMessageId, Long recentClientMessageId) {
+
+        if (!chatReadWatermarkStore.advance(chatRoomId, userId, recentClientMessageId)) {
+            log.debug("User {} has already read up to {} in chat room {}.", userId, recentClientMessageId, chatRoomId);
+            return;
         }
+
+        // 워터마크 변경 정보를 포함한 응답 객체 생성
+        ReadMessageResponseDto readMessageResponseDto = ReadMessageResponseDto.builder()
+                .userId(userId.toString())
+                .startMessageId(lastClientMessageId.toString())
+                .endMessageId(recentClientMessageId.toString())
+                .build();
+
+        // RabbitMQ에 읽음 상태 정보 전송
+        messagingTemplate.convertAndSend(STOMP_READ_PREFIX + chatRoomId, readMessageResponseDto);
     }
 
     /**
@@ -400,8 +359,7 @@ public class ChatService {
                 .orElseThrow(() -> new ChatRoomHandler(ErrorStatus._CHATROOM_NOT_FOUND));
          */
 
-        String redisKey = "chat:room:" + messageDto.chatRoomId() + ":message";
-        redisTemplate.opsForList().leftPush(redisKey, messageDto);
+        chatMessageStore.save(messageDto);
     }
 
     /**
@@ -439,6 +397,9 @@ public class ChatService {
         boolean isHost = true;
         ChatRoomMembership chatRoomMembership = ChatRoomConverter.toChatRoomMembershipEntity(user, savedChatRoom, isHost, -1L);
         chatRoomMembershipRepository.save(chatRoomMembership);
+        chatRoomRosterCache.addMember(savedChatRoom.getId(), userId);
+        chatRankLeaderboard.addMember(savedChatRoom.getId(), userId);
+        chatReadWatermarkStore.initialize(savedChatRoom.getId(), userId, 0L);
 
         return savedChatRoom.getId();
     }
@@ -472,13 +433,12 @@ public class ChatService {
         ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
                 .orElseThrow(() -> new ChatRoomHandler(ErrorStatus._CHATROOM_NOT_FOUND));
 
-        // 최근 활동을 확인하기 위해 Redis에서 가장 마지막에 저장된 List를 가져오는 로직
-        String redisKey = "chat:room:" + chatRoomId + ":message";
-        Object lastMessageObject = redisTemplate.opsForList().index(redisKey, 0);
+        // 최근 활동을 확인하기 위해 Redis에서 가장 마지막에 저장된 메시지를 가져오는 로직
+        List<MessageDto> lastMessages = chatMessageStore.findLatest(chatRoomId, 1);
 
-        // redisKey가 존재하지 않거나 리스트가 비어 있으면 null 반환
-        if (lastMessageObject != null) {
-            MessageDto lastMessage = (MessageDto) lastMessageObject;
+        // 채팅방에 메시지가 없으면 null 반환
+        if (!lastMessages.isEmpty()) {
+            MessageDto lastMessage = lastMessages.get(0);
             String lastActiviy = convertToLastActivity(lastMessage.timestamp());
             return ChatRoomConverter.toChatRoomDetailResponseDto(chatRoom, lastActiviy);
         }
@@ -516,16 +476,17 @@ public class ChatService {
         boolean isHost = false; // 호스트가 아니기에 false
         ChatRoomMembership chatRoomMembership = ChatRoomConverter.toChatRoomMembershipEntity(user, chatRoom, isHost, messageDto.id());
 
+        // 가입 이전의 메시지는 읽은 것으로 처리 - 가입 메시지 ID를 워터마크로 설정
+        chatReadWatermarkStore.initialize(chatRoomId, userId, messageDto.id());
+
         // 채팅방-사용자 관계 테이블 저장
         chatRoomMembershipRepository.save(chatRoomMembership);
         chatRoomRepository.save(chatRoom);
+        chatRoomRosterCache.addMember(chatRoomId, userId);
+        chatRankLeaderboard.addMember(chatRoomId, userId);
 
-        // RabbitMQ 메시지 전달 - 예외 발생 시 트랜 잭션 롤백
-        try {
-            enterMessage(messageDto);
-        } catch (AmqpException e) {
-            throw new AmqpException("메시지 전송 실패", e); // 예외를 던져서 트랜잭션 롤백 유도
-        }
+        // 같은 트랜잭션으로 outbox에 저장 -> 커밋된 경우에만 RabbitMQ로 전송
+        enterMessage(messageDto);
     }
 
     @Transactional
@@ -554,19 +515,22 @@ public class ChatService {
 
             chatRoomMembershipRepository.deleteChatRoomMemberships(chatRoom.getId()); // 모든 연관 엔티티 삭제
             chatRoomRepository.delete(chatRoom);
+            chatRoomRosterCache.evict(chatRoom.getId());
+            chatRankLeaderboard.evict(chatRoom.getId());
+            chatReadWatermarkStore.evict(chatRoom.getId());
+            chatImageIndex.evict(chatRoom.getId());
 
         } else {
             // 방장이 아니라면 관계 테이블만 삭제
             chatRoomMembershipRepository.delete(chatRoomMembership);
             chatRoomRepository.save(chatRoom);
+            chatRoomRosterCache.removeMember(chatRoom.getId(), user.getId());
+            chatRankLeaderboard.removeMember(chatRoom.getId(), user.getId());
+            chatReadWatermarkStore.remove(chatRoom.getId(), user.getId());
         }
 
-        // RabbitMQ 메시지 전달 - 예외 발생 시 트랜 잭션 롤백
-        try {
-            exitMessage(messageDto);
-        } catch (AmqpException e) {
-            throw new AmqpException("메시지 전송 실패", e); // 예외를 던져서 트랜잭션 롤백 유도
-        }
+        // 같은 트랜잭션으로 outbox에 저장 -> 커밋된 경우에만 RabbitMQ로 전송
+        exitMessage(messageDto);
     }
 
     /**
@@ -687,50 +651,40 @@ public class ChatService {
     }
 
     /**
-     * 이미지 메시지 URL 리스트를 반환
-     * messageType이 "IMAGE"인 경우, content에 저장된 S3 key를 이용해 URL을 생성
+     * 이미지 메시지 URL 리스트를 최신순으로 limit개씩 반환
+     * 채팅방별 이미지 인덱스에 저장된 S3 key를 이용해 URL을 생성
+     *
+     * @param beforeMessageId 이 메시지 ID보다 이전 이미지를 조회, null이면 가장 최근 이미지부터
      */
-    public List<ImageChatResponseDTO> getChatRoomImageUrls(Long chatRoomId) {
-        List<MessageDto> messages = getMessages(chatRoomId);
-
-        return messages.stream()
-                .filter(m -> "IMAGE".equalsIgnoreCase(m.messageType()))
-                .map(m -> new ImageChatResponseDTO(
-                        m.id(),                              // 메시지 ID
-                        amazonS3Manager.getFileUrl(m.content())  // S3에 있는 실제 이미지 URL
+    public List<ImageChatResponseDTO> getChatRoomImageUrls(Long chatRoomId, Long beforeMessageId, int limit) {
+
+        return chatImageIndex.findBefore(chatRoomId, beforeMessageId, limit).entrySet().stream()
+                .map(image -> new ImageChatResponseDTO(
+                        image.getKey(),                              // 메시지 ID
+                        amazonS3Manager.getFileUrl(image.getValue())  // S3에 있는 실제 이미지 URL
                 ))
                 .collect(Collectors.toList());
     }
 
     /**
-     * 채팅방 내의 특정 이미지 메시지에 해당하는 파일을 S3에서 다운로드
-     * S3DownloadResponse에는 파일 데이터와 원본 콘텐츠 타입이 포함
+     * 채팅방 내의 특정 이미지 메시지에 해당하는 파일을 S3에서 스트림으로 다운로드
+     * S3StreamResponse에는 파일 스트림과 원본 콘텐츠 타입, ETag가 포함
+     *
+     * @param ifNoneMatch 클라이언트가 가진 ETag (따옴표 제외), 같으면 본문 없이 notModified 응답
+     * @param range 다운로드할 바이트 범위, 전체를 받으면 null
      */
-    @Transactional(readOnly = true)
-    public AmazonS3Manager.S3DownloadResponse downloadChatImage(Long chatRoomId, Long messageId) {
-        Optional<MessageDto> optionalImageMessage = getMessages(chatRoomId).stream()
-                .filter(m -> {
-                    System.out.println("Comparing: m.id()=" + m.id() + " (" + m.id().getClass() + ") vs messageId=" + messageId + " (" + messageId.getClass() + ")");
-                    return m.id().equals(messageId) && "IMAGE".equalsIgnoreCase(m.messageType());
-                })
-                .findFirst();
-        if (optionalImageMessage.isEmpty()) {
+    public AmazonS3Manager.S3StreamResponse downloadChatImage(Long chatRoomId, Long messageId, String ifNoneMatch, HttpRange range) {
+
+        // 다운로드시, S3의 키를 통해서 다운로드 해야함.
+        String keyName = chatImageIndex.findKeyName(chatRoomId, messageId);
+        if (keyName == null) {
             throw new ChatRoomHandler(ErrorStatus._CHAT_IMAGE_NOT_FOUND);
         }
-        MessageDto imageMessage = optionalImageMessage.get();
-        String imageUrl = imageMessage.content();
 
-        // URL에서 S3 key 파싱 ("https://yeongkkeul-s3.s3.ap-northeast-2.amazonaws.com/chat/badb12fa-8d10-487b-9536-d43735f6f59f" -> "chat/badb12fa-8d10-487b-9536-d43735f6f59f")
-        // 다운로드시, S3의 키를 통해서 다운로드 해야함.
         try {
-            URL url = new URL(imageUrl);
-            String key = url.getPath(); // "/chat/badb12fa-8d10-487b-9536-d43735f6f59f"
-            if (key.startsWith("/")) {
-                key = key.substring(1);
-            }
-            return amazonS3Manager.downloadFileWithMetadata(key);
-        } catch (MalformedURLException e) {
-            throw new ChatRoomHandler(ErrorStatus._CHAT_IMAGE_NOT_FOUND);
+            return amazonS3Manager.openFileStream(keyName, ifNoneMatch, range);
+        } catch (IllegalArgumentException e) {
+            throw new ChatRoomHandler(ErrorStatus._CHAT_IMAGE_RANGE_NOT_SATISFIABLE);
         }
     }
 
@@ -800,35 +754,61 @@ public class ChatService {
     }
 
 
+    /**
+     * 사용자가 참여한 모든 채팅방에 지출 내역(영수증) 메시지를 전송.
+     * 채팅방 수와 관계없이 로스터 조회, RabbitMQ 전송, Redis 저장, 온라인 여부 조회를 각각 한 번에 처리합니다.
+     */
     public void sendReceiptChatRoom(Expense response, Long userId){
-        List<ChatRoomMembership> chatRooms = getChatRoomMemberships(userId);
-        chatRooms.stream().map(membership -> MessageDto.builder()
-                        .id(TsidCreator.getTsid().toLong()) // TSID ID 생성기, 시간에 따라 ID에 영향이 가고 최신 데이터일수록 ID 값이 커진다.
-                        .chatRoomId(membership.getChatroom().getId())
+        List<Long> chatRoomIds = getChatRoomMemberships(userId).stream()
+                .map(membership -> membership.getChatroom().getId())
+                .toList();
+        if (chatRoomIds.isEmpty()) return;
+
+        // 모든 채팅방의 참여자를 한 번의 파이프라인으로 조회
+        Map<Long, Set<Long>> memberIdsByChatRoom = chatRoomRosterCache.getMemberIds(chatRoomIds);
+
+        List<MessageDto> messages = chatRoomIds.stream()
+                .map(chatRoomId -> toOutgoingMessage(TsidCreator.getTsid().toLong(), MessageDto.builder()
+                        .chatRoomId(chatRoomId)
                         .senderId(userId)
                         .messageType("RECEIPT")
                         .content(String.valueOf(response.getId())) // 지출내역 아이디를 String으로 전환해서 넣기.
-                        .timestamp(LocalDateTime.now().toString())
-                        .build())
-                .forEach(message -> {
-                    MessageDto messageDto = sendMessage(message);// 메시지 전송
-                    log.info("Send a receipt message to chat room ID: {}", message.chatRoomId());
-                    saveMessages(messageDto); // 메시지 저장
-                });
+                        .build(), memberIdsByChatRoom.getOrDefault(chatRoomId, Set.of(userId))))
+                .toList();
+
+        // 하나의 채널에서 모든 메시지를 연달아 전송 (confirm은 비동기로 도착)
+        chatMessagePublisher.publishAll(messages);
+        log.info("Send receipt messages to chat room IDs: {}", chatRoomIds);
+
+        chatMessageStore.saveAcrossRooms(messages); // 메시지 저장
+
+        // 모든 채팅방의 수신자를 합쳐서 온라인 여부를 한 번에 조회한 뒤 푸시 (비동기)
+        Map<MessageDto, Set<Long>> recipientIdsByMessage = new LinkedHashMap<>();
+        for (MessageDto message : messages) {
+            recipientIdsByMessage.put(message, memberIdsByChatRoom.getOrDefault(message.chatRoomId(), Set.of()).stream()
+                    .filter(memberId -> !memberId.equals(userId))
+                    .collect(Collectors.toSet()));
+        }
+        chatPushService.pushAllToOfflineRecipients(recipientIdsByMessage);
     }
 
+    /**
+     * 채팅방에 이미지 메시지를 전송하고, 이미지 목록 조회용 인덱스에 추가합니다.
+     * 서버에서 만드는 메시지라 clientMessageId가 없으므로 재전송 중복 제거(ChatMessageDeduplicator)를 거치지 않습니다.
+     */
     public void sendImageChat(Long userId, Long chatRoomId, String imageUrl){
         MessageDto message = MessageDto.builder()
-                .id(TsidCreator.getTsid().toLong()) // TSID ID 생성기, 시간에 따라 ID에 영향이 가고 최신 데이터일수록 ID 값이 커진다.
                 .chatRoomId(chatRoomId)
                 .senderId(userId)
                 .messageType("IMAGE")
                 .content(imageUrl)
                 .timestamp(LocalDateTime.now().toString())
                 .build();
-        MessageDto messageDto = sendMessage(message);// 메시지 전송
-        log.info("Send a image message to chat room ID: {}", message.chatRoomId());
-        saveMessages(messageDto); // 메시지 저장
+        sendMessage(message).ifPresent(sent -> { // 메시지 전송 (ID는 sendMessage에서 부여)
+            log.info("Send a image message to chat room ID: {}", sent.chatRoomId());
+            saveMessages(sent); // 메시지 저장
+            chatImageIndex.add(chatRoomId, sent.id(), imageUrl); // 이미지 목록, 다운로드 조회용 인덱스
+        });
     }
 
     @Transactional(readOnly = true)
@@ -839,13 +819,13 @@ public class ChatService {
 
     /**
      * 사용자가 방장일 때, 특정 사용자를 퇴출 시키는 경우 메시지를 전송
-     * 퇴장 메시지도 RabbitMQ를 통해 해당 채팅방에 있는 모든 클라이언트로 전송.
+     * 퇴출 메시지는 현재 트랜잭션의 outbox에 저장되고, 커밋 이후 ChatOutboxPublisher가 RabbitMQ로 전송.
      *
      * @param messageDto 전송할 메시지 정보
      */
     public void expelMessage(MessageDto messageDto) {
 
-        rabbitTemplate.convertAndSend(CHAT_EXCHANGE_NAME, ROUTING_PREFIX_KEY + messageDto.chatRoomId(), messageDto, new CorrelationData(UUID.randomUUID().toString()));
+        chatOutboxPublisher.enqueue(messageDto);
     }
 
     @Transactional
@@ -880,12 +860,27 @@ public class ChatService {
         // 퇴장시키는 유저의 관계 테이블 삭제
         chatRoomMembershipRepository.delete(targetUserChatRoomMembership);
         chatRoomRepository.save(chatRoom);
+        chatRoomRosterCache.removeMember(chatRoom.getId(), targetUser.getId());
+        chatRankLeaderboard.removeMember(chatRoom.getId(), targetUser.getId());
+        chatReadWatermarkStore.remove(chatRoom.getId(), targetUser.getId());
 
-        // RabbitMQ 메시지 전달 - 예외 발생 시 트랜 잭션 롤백
-        try {
-            expelMessage(messageDto);
-        } catch (AmqpException e) {
-            throw new AmqpException("메시지 전송 실패", e); // 예외를 던져서 트랜잭션 롤백 유도
+        // 같은 트랜잭션으로 outbox에 저장 -> 커밋된 경우에만 RabbitMQ로 전송
+        expelMessage(messageDto);
+    }
+
+    // 롤백된 가입/퇴장에 대한 알림이 나가지 않도록 커밋 이후에 실행
+    private void afterCommit(Runnable action) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
-}
\ No newline at end of file
+}
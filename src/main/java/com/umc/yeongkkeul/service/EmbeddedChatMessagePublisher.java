@@ -0,0 +1,102 @@
+package com.umc.yeongkkeul.service;
+
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * EmbeddedChatMessagePublisher 클래스
+ * embedded 프로필에서 RabbitMQ 대신 사용하는 JVM 안의 전달 경로.
+ *
+ * 구독자에게는 Simple Broker로 RabbitMQ STOMP와 같은 목적지(/exchange/chat.exchange/chat.room.{id})에 전송하고,
+ * 메시지 저장은 chat.queue 대신 메모리 큐에 모아 flush-interval-ms마다 batch-size개씩 ChatMessagePersister로 저장합니다.
+ * 서버가 비정상 종료되면 아직 저장되지 않은 메시지는 Redis에만 남습니다. (단일 서버, 테스트 용도)
+ */
+@Slf4j
+@Component
+@Profile("embedded")
+public class EmbeddedChatMessagePublisher implements ChatMessagePublisher, DisposableBean {
+
+    private static final String ROUTING_PREFIX_KEY = "chat.room."; // RabbitMQ 라우팅 키와 같은 형식
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ChatMessagePersister chatMessagePersister;
+    private final String destinationPrefix; // /exchange/{exchange}/chat.room.
+    private final int batchSize;
+
+    // chat.queue를 대신하는 저장 대기 메시지
+    private final BlockingQueue<MessageDto> pendingMessages = new LinkedBlockingQueue<>();
+
+    public EmbeddedChatMessagePublisher(
+            SimpMessagingTemplate messagingTemplate,
+            ChatMessagePersister chatMessagePersister,
+            @Value("${rabbitmq.exchange.name}") String chatExchangeName,
+            @Value("${chat.persistence.batch-size}") int batchSize
+    ) {
+
+        this.messagingTemplate = messagingTemplate;
+        this.chatMessagePersister = chatMessagePersister;
+        this.destinationPrefix = "/exchange/" + chatExchangeName + "/" + ROUTING_PREFIX_KEY;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void publish(MessageDto message) {
+
+        messagingTemplate.convertAndSend(destinationPrefix + message.chatRoomId(), message);
+        pendingMessages.add(message);
+    }
+
+    @Override
+    public void publishAll(List<MessageDto> messages) {
+
+        messages.forEach(this::publish);
+    }
+
+    /**
+     * Simple Broker에 전달되면 바로 true로 완료됩니다.
+     */
+    @Override
+    public CompletableFuture<Boolean> publishConfirmed(MessageDto message) {
+
+        try {
+            publish(message);
+            return CompletableFuture.completedFuture(true);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 모인 메시지를 batch-size개씩 저장합니다.
+     */
+    @Scheduled(fixedDelayString = "${chat.persistence.flush-interval-ms}")
+    public void flush() {
+
+        List<MessageDto> batch = new ArrayList<>(batchSize);
+        while (pendingMessages.drainTo(batch, batchSize) > 0) {
+            try {
+                chatMessagePersister.persist(batch);
+            } catch (RuntimeException e) {
+                log.error("Failed to persist {} chat messages.", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+}
@@ -0,0 +1,70 @@
+package com.umc.yeongkkeul.service;
+
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * RabbitChatMessagePublisher 클래스
+ * 채팅 메시지를 chat.exchange에 chat.room.{id} 라우팅 키로 발행하는 컴포넌트.
+ * STOMP 구독자(브로커 릴레이)와 chat.queue 저장 Consumer가 같은 메시지를 받습니다.
+ */
+@Component
+@Profile("!embedded")
+public class RabbitChatMessagePublisher implements ChatMessagePublisher {
+
+    private static final String ROUTING_PREFIX_KEY = "chat.room."; // ROUTING KEY 접미사
+
+    private final RabbitTemplate rabbitTemplate;
+    private final String chatExchangeName;
+
+    public RabbitChatMessagePublisher(RabbitTemplate rabbitTemplate, @Value("${rabbitmq.exchange.name}") String chatExchangeName) {
+
+        this.rabbitTemplate = rabbitTemplate;
+        this.chatExchangeName = chatExchangeName;
+    }
+
+    @Override
+    public void publish(MessageDto message) {
+
+        rabbitTemplate.convertAndSend(chatExchangeName, ROUTING_PREFIX_KEY + message.chatRoomId(), message, new CorrelationData(UUID.randomUUID().toString()));
+    }
+
+    /**
+     * 하나의 채널에서 모든 메시지를 연달아 전송합니다. (confirm은 비동기로 도착)
+     */
+    @Override
+    public void publishAll(List<MessageDto> messages) {
+
+        rabbitTemplate.invoke(operations -> {
+            for (MessageDto message : messages) {
+                operations.convertAndSend(chatExchangeName, ROUTING_PREFIX_KEY + message.chatRoomId(), message, new CorrelationData(UUID.randomUUID().toString()));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Publisher Confirm(CorrelationData)의 ack/nack로 완료됩니다.
+     */
+    @Override
+    public CompletableFuture<Boolean> publishConfirmed(MessageDto message) {
+
+        CorrelationData correlationData = new CorrelationData(UUID.randomUUID().toString());
+        try {
+            rabbitTemplate.convertAndSend(chatExchangeName, ROUTING_PREFIX_KEY + message.chatRoomId(), message, correlationData);
+        } catch (AmqpException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return correlationData.getFuture().thenApply(CorrelationData.Confirm::isAck);
+    }
+}
@@ -17,6 +17,9 @@ import org.springframework.stereotype.Service;
 
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,23 +32,36 @@ public class UserRankService {
     private UserRepository userRepository;
     @Autowired
     private ChatRoomMembershipRepository chatRoomMembershipRepository;
+    @Autowired
+    private ChatRankLeaderboard chatRankLeaderboard; // 채팅방별 점수 랭킹 (Redis Sorted Set)
 
+    /**
+     * 채팅방 참여자를 오늘 점수(userScore) 내림차순으로 조회합니다.
+     * 순위는 Redis 랭킹에서 가져오고, 사용자 정보는 한 번의 쿼리로 조회합니다.
+     */
     public ChatUserRankResponseDto.chatRankListDto chatRankListDto(Long chatRoomId) {
 
-        List<ChatRoomMembership> chatRoomList = chatRoomMembershipRepository.findByChatroomIdOrderByUserScoreDesc(chatRoomId);
+        List<ChatRankLeaderboard.RankedMember> rankedMembers = chatRankLeaderboard.top(chatRoomId, ChatRankLeaderboard.Board.TODAY, 0);
+
+        Map<Long, User> usersById = userRepository.findAllById(rankedMembers.stream().map(ChatRankLeaderboard.RankedMember::userId).toList())
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
 
         List<ChatUserRankResponseDto.userInfoDto> userRanks =
-                chatRoomList.stream()
-                        .map(membership -> {
-                            User user = membership.getUser();  // ChatRoomMembership에 User 정보가 있다고 가정
+                rankedMembers.stream()
+                        .map(rankedMember -> {
+                            User user = usersById.get(rankedMember.userId());
+                            if (user == null) return null; // 랭킹 캐시에 남아 있는 탈퇴한 사용자
+
                             return ChatUserRankResponseDto.userInfoDto.builder()
                                     .userId(user.getId())
                                     .nickname(user.getNickname())
-                                    .profileImage(user.getImageUrl())  // User 엔티티에 profileImage 필드가 있다고 가정
-                                    .rankScore(membership.getUserScore())
-                                    .rank(chatRoomList.indexOf(membership) + 1) // 리스트 순서 기반으로 랭킹 부여
+                                    .profileImage(user.getImageUrl())
+                                    .rankScore(rankedMember.score())
+                                    .rank(rankedMember.rank())
                                     .build();
                         })
+                        .filter(Objects::nonNull)
                         .collect(Collectors.toList());
 
 
@@ -53,10 +69,11 @@ public class UserRankService {
     }
 
 
+    /**
+     * 채팅방 참여자의 프로필과 어제 점수 기준 순위를 조회합니다. (순위는 ZREVRANK 한 번)
+     */
     public ChatUserProfileDto chatUserProfile(Long chatRoomId, Long userId) {
 
-        List<ChatRoomMembership> yesterdayRankList = chatRoomMembershipRepository.findByChatroomIdOrderByYesterdayScoreDesc(chatRoomId);
-
         ChatRoomMembership findUserProfile = chatRoomMembershipRepository.findByChatroom_IdAndUser_Id(chatRoomId,userId)
                 .orElseThrow(()->new GeneralException(ErrorStatus._USER_NOT_FOUND));
 
@@ -64,7 +81,8 @@ public class UserRankService {
 
         User user = findUserProfile.getUser();
 
-        int rank = yesterdayRankList.indexOf(findUserProfile) + 1;
+        Integer yesterdayRank = chatRankLeaderboard.rankOf(chatRoomId, userId, ChatRankLeaderboard.Board.YESTERDAY);
+        int rank = (yesterdayRank == null) ? 0 : yesterdayRank;
 
         String formattedCreatedAt = findUserProfile.getCreatedAt()
                 .format(DateTimeFormatter.ofPattern("yyyy년 MM월 dd일"));
@@ -1,41 +1,173 @@
 package com.umc.yeongkkeul.socket;
 
-import org.springframework.data.redis.core.RedisTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.TimeUnit;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * SocketConnectionTracker 클래스
+ * 웹소켓(STOMP) 세션을 기준으로 사용자의 온라인 상태를 관리하는 컴포넌트.
+ *
+ * socket:online:{userId}       - String, 세션이 하나라도 있으면 존재 (MGET으로 여러 사용자를 한 번에 조회)
+ * socket:session-seen:{userId} - Sorted Set, 여러 기기에서 연결된 세션 ID -> 마지막 갱신 시각(Redis 서버 시간, ms)
+ *
+ * 이 서버에 연결된 세션은 refresh-interval마다 Lua 스크립트로 세션별 갱신 시각과 키 TTL을 연장합니다.
+ * 클라이언트가 STOMP heartbeat를 보내기로 한 세션은 ttl 동안 아무 프레임도 오지 않으면 끊어진 것으로 처리합니다.
+ * 비정상 종료된 서버의 세션은 더 이상 갱신되지 않으므로, ttl이 지나면 연결/해제/갱신 스크립트에서 정리됩니다.
+ * 남은 세션이 그런 세션뿐이면 온라인 키도 그 세션의 만료 시각에 함께 만료됩니다.
+ *
+ * 온라인 여부 조회는 짧은 시간 동안 JVM 안에 캐싱하며, 상태가 바뀌면 Redis Pub/Sub(socket:presence)으로 모든 서버의 캐시를 갱신합니다.
+ */
+@Slf4j
 @Component
-public class SocketConnectionTracker {
+public class SocketConnectionTracker implements MessageListener {
 
-    private final RedisTemplate<String, Object> redisTemplate;
     private static final String ONLINE_KEY_PREFIX = "socket:online:";
-    // TTL 시간 - 소켓 비정상연결 종료 관리위함
-    private static final long TTL_MINUTES = 10;
-    
-    
-    public SocketConnectionTracker(RedisTemplate<String, Object> redisTemplate) {
-        this.redisTemplate = redisTemplate;
+    private static final String SESSIONS_KEY_PREFIX = "socket:session-seen:"; // 기존 Set 타입 키(socket:sessions:)와 겹치지 않도록 새 이름 사용
+    private static final String PRESENCE_CHANNEL = "socket:presence"; // 메시지: "{userId}:1"(온라인), "{userId}:0"(오프라인)
+
+    // 만료된 세션을 지우는 Lua 코드 (now, ttl이 정의된 뒤에 사용)
+    private static final String PRUNE_STALE_SESSIONS =
+            "local function pruneStale(key) redis.call('ZREMRANGEBYSCORE', key, '-inf', '(' .. (now - ttl)) end ";
+
+    private static final String REDIS_NOW =
+            "local time = redis.call('TIME') " +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) ";
+
+    // 세션 추가 + 만료된 세션 정리 + 온라인 키 설정 + 상태 변경 알림
+    private static final RedisScript<Long> CONNECT_SCRIPT = new DefaultRedisScript<>(
+            REDIS_NOW +
+            "local ttl = tonumber(ARGV[2]) " +
+            PRUNE_STALE_SESSIONS +
+            "redis.call('ZADD', KEYS[1], now, ARGV[1]) " +
+            "pruneStale(KEYS[1]) " +
+            "redis.call('PEXPIRE', KEYS[1], ttl) " +
+            "redis.call('SET', KEYS[2], 'true', 'PX', ttl) " +
+            "redis.call('PUBLISH', ARGV[3], ARGV[4] .. ':1') return 1",
+            Long.class);
+
+    // 세션 제거 + 만료된 세션 정리
+    // 남은 세션이 있으면 가장 최근에 갱신된 세션이 만료될 때 키도 만료되도록 TTL을 맞추고,
+    // 없으면 온라인 키 삭제 + 상태 변경 알림
+    private static final RedisScript<Long> DISCONNECT_SCRIPT = new DefaultRedisScript<>(
+            REDIS_NOW +
+            "local ttl = tonumber(ARGV[4]) " +
+            PRUNE_STALE_SESSIONS +
+            "redis.call('ZREM', KEYS[1], ARGV[1]) " +
+            "pruneStale(KEYS[1]) " +
+            "local latest = redis.call('ZREVRANGE', KEYS[1], 0, 0, 'WITHSCORES') " +
+            "if latest[1] then " +
+            "  local remaining = math.max(1, tonumber(latest[2]) + ttl - now) " +
+            "  redis.call('PEXPIRE', KEYS[1], remaining) " +
+            "  redis.call('PEXPIRE', KEYS[2], remaining) " +
+            "  return 0 " +
+            "end " +
+            "redis.call('DEL', KEYS[1], KEYS[2]) " +
+            "redis.call('PUBLISH', ARGV[2], ARGV[3] .. ':0') return 1",
+            Long.class);
+
+    // 이 서버의 세션 갱신 시각 + 키 TTL 연장, 다른 서버에서 갱신되지 않은 세션 정리
+    // KEYS: 사용자마다 (sessions 키, online 키)
+    // ARGV: ttl, 이후 사용자마다 (세션 수 n, 세션 ID n개)
+    private static final RedisScript<Long> REFRESH_SCRIPT = new DefaultRedisScript<>(
+            REDIS_NOW +
+            "local ttl = tonumber(ARGV[1]) " +
+            PRUNE_STALE_SESSIONS +
+            "local index = 2 " +
+            "for i = 1, #KEYS, 2 do " +
+            "  local count = tonumber(ARGV[index]) " +
+            "  for j = 1, count do redis.call('ZADD', KEYS[i], now, ARGV[index + j]) end " +
+            "  index = index + count + 1 " +
+            "  pruneStale(KEYS[i]) " +
+            "  redis.call('PEXPIRE', KEYS[i], ttl) " +
+            "  redis.call('SET', KEYS[i + 1], 'true', 'PX', ttl) " +
+            "end " +
+            "return 1",
+            Long.class);
+
+    private static final int REFRESH_BATCH_SIZE = 500; // 갱신 스크립트 한 번에 처리하는 사용자 수 (Redis를 오래 붙잡지 않도록)
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Duration ttl; // 온라인 키 TTL, heartbeat가 없는 세션과 갱신되지 않은 세션을 끊어진 것으로 보는 시간
+    private final long nearCacheTtlMillis; // 온라인 여부를 JVM 안에 캐싱하는 시간
+
+    // 이 서버에 연결된 세션
+    private final Map<String, LocalSession> localSessions = new ConcurrentHashMap<>();
+
+    // 사용자 ID -> 온라인 여부 캐시
+    private final Map<Long, CachedPresence> nearCache = new ConcurrentHashMap<>();
+
+    private record LocalSession(Long userId, boolean heartbeatEnabled, long lastSeenMillis) {
+
+        LocalSession touch(long now) {
+            return new LocalSession(userId, heartbeatEnabled, now);
+        }
+    }
+
+    private record CachedPresence(boolean online, long expiresAtMillis) {
+    }
+
+    public SocketConnectionTracker(
+            StringRedisTemplate stringRedisTemplate,
+            RedisMessageListenerContainer redisMessageListenerContainer,
+            @Value("${socket.presence.ttl-seconds}") long ttlSeconds,
+            @Value("${socket.presence.near-cache-ttl-ms}") long nearCacheTtlMillis
+    ) {
+
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.nearCacheTtlMillis = nearCacheTtlMillis;
+
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(PRESENCE_CHANNEL));
     }
 
     /**
-     * 사용자 ID를 기반으로 온라인 상태를 Redis에 기록합니다.
-     * 필요에 따라 TTL(Time To Live)을 설정할 수도 있습니다.
+     * 세션이 연결되었을 때 사용자를 온라인 상태로 기록합니다.
      *
+     * @param sessionId STOMP 세션 ID
      * @param userId 연결된 사용자의 고유 ID
+     * @param heartbeatEnabled 클라이언트가 heartbeat를 보내기로 했는지 여부
      */
-    public void setUserOnline(Long userId) {
-        String key = ONLINE_KEY_PREFIX + userId;
-        redisTemplate.opsForValue().set(key, true, TTL_MINUTES, TimeUnit.MINUTES);
+    public void connect(String sessionId, Long userId, boolean heartbeatEnabled) {
+
+        localSessions.put(sessionId, new LocalSession(userId, heartbeatEnabled, System.currentTimeMillis()));
+
+        stringRedisTemplate.execute(CONNECT_SCRIPT, List.of(sessionsKey(userId), onlineKey(userId)),
+                sessionId, String.valueOf(ttl.toMillis()), PRESENCE_CHANNEL, userId.toString());
     }
 
     /**
-     * 사용자 ID에 해당하는 온라인 상태 키를 삭제하여 오프라인 상태로 만듭니다.
-     *
-     * @param userId 연결 종료한 사용자의 고유 ID
+     * 세션에서 heartbeat나 다른 프레임이 들어왔을 때 마지막 활동 시간을 갱신합니다. (Redis 접근 없음)
+     */
+    public void touch(String sessionId) {
+
+        localSessions.computeIfPresent(sessionId, (id, session) -> session.touch(System.currentTimeMillis()));
+    }
+
+    /**
+     * 세션이 끊어졌을 때 세션을 제거하고, 마지막 세션이면 사용자를 오프라인 상태로 만듭니다.
+     * 같은 세션에 대해 여러 번 호출되어도 한 번만 처리합니다.
      */
-    public void setUserOffline(Long userId) {
-        redisTemplate.delete(ONLINE_KEY_PREFIX + userId);
+    public void disconnect(String sessionId) {
+
+        LocalSession session = localSessions.remove(sessionId);
+        if (session == null) return;
+
+        stringRedisTemplate.execute(DISCONNECT_SCRIPT, List.of(sessionsKey(session.userId()), onlineKey(session.userId())),
+                sessionId, PRESENCE_CHANNEL, session.userId().toString(), String.valueOf(ttl.toMillis()));
     }
 
     /**
@@ -45,7 +177,124 @@ public class SocketConnectionTracker {
      * @return 온라인이면 true, 그렇지 않으면 false
      */
     public boolean isUserOnline(Long userId) {
-        Object status = redisTemplate.opsForValue().get(ONLINE_KEY_PREFIX + userId);
-        return status != null && (Boolean) status;
+        return findOnlineUserIds(List.of(userId)).contains(userId);
+    }
+
+    /**
+     * 여러 사용자의 온라인 여부를 조회합니다.
+     * JVM 캐시에 없는 사용자만 MGET 한 번으로 조회합니다.
+     *
+     * @param userIds 확인할 사용자 ID 목록
+     * @return userIds 중 온라인인 사용자 ID
+     */
+    public Set<Long> findOnlineUserIds(Collection<Long> userIds) {
+
+        if (userIds.isEmpty()) return Set.of();
+
+        long now = System.currentTimeMillis();
+        Set<Long> onlineUserIds = new HashSet<>();
+        List<Long> missedUserIds = new ArrayList<>();
+
+        for (Long userId : userIds) {
+            CachedPresence cachedPresence = nearCache.get(userId);
+            if (cachedPresence == null || cachedPresence.expiresAtMillis() < now) {
+                missedUserIds.add(userId);
+            } else if (cachedPresence.online()) {
+                onlineUserIds.add(userId);
+            }
+        }
+
+        if (missedUserIds.isEmpty()) return onlineUserIds;
+
+        List<String> statuses = stringRedisTemplate.opsForValue().multiGet(missedUserIds.stream()
+                .map(this::onlineKey)
+                .toList());
+        if (statuses == null) return onlineUserIds;
+
+        for (int i = 0; i < missedUserIds.size(); i++) {
+            boolean online = statuses.get(i) != null;
+            nearCache.put(missedUserIds.get(i), new CachedPresence(online, now + nearCacheTtlMillis));
+            if (online) onlineUserIds.add(missedUserIds.get(i));
+        }
+
+        return onlineUserIds;
+    }
+
+    /**
+     * 이 서버에 연결된 세션의 갱신 시각과 TTL을 연장하고, heartbeat가 끊긴 세션을 정리합니다.
+     * 같은 사용자의 다른 서버 세션 중 ttl 동안 갱신되지 않은 세션(비정상 종료된 서버)도 함께 제거됩니다.
+     */
+    @Scheduled(fixedDelayString = "${socket.presence.refresh-interval-ms}")
+    public void refreshLocalSessions() {
+
+        if (localSessions.isEmpty()) return;
+
+        long staleBefore = System.currentTimeMillis() - ttl.toMillis();
+        Map<Long, List<String>> activeSessionIds = new HashMap<>();
+
+        for (Map.Entry<String, LocalSession> entry : localSessions.entrySet()) {
+            LocalSession session = entry.getValue();
+
+            if (session.heartbeatEnabled() && session.lastSeenMillis() < staleBefore) {
+                log.info("Session {} of user {} missed heartbeats. Treat as disconnected.", entry.getKey(), session.userId());
+                disconnect(entry.getKey());
+            } else {
+                activeSessionIds.computeIfAbsent(session.userId(), userId -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+
+        List<String> keys = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+
+        for (Map.Entry<Long, List<String>> entry : activeSessionIds.entrySet()) {
+            keys.add(sessionsKey(entry.getKey()));
+            keys.add(onlineKey(entry.getKey()));
+            args.add(String.valueOf(entry.getValue().size()));
+            args.addAll(entry.getValue());
+
+            if (keys.size() >= REFRESH_BATCH_SIZE * 2) {
+                refresh(keys, args);
+                keys.clear();
+                args.clear();
+            }
+        }
+
+        if (!keys.isEmpty()) refresh(keys, args);
+    }
+
+    private void refresh(List<String> keys, List<String> sessionArgs) {
+
+        List<String> args = new ArrayList<>(sessionArgs.size() + 1);
+        args.add(String.valueOf(ttl.toMillis()));
+        args.addAll(sessionArgs);
+
+        stringRedisTemplate.execute(REFRESH_SCRIPT, keys, args.toArray());
+    }
+
+    /**
+     * 다른 서버(또는 이 서버)에서 발행한 온라인 상태 변경을 JVM 캐시에 반영합니다.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separatorIndex = body.lastIndexOf(':');
+        if (separatorIndex < 0) return;
+
+        try {
+            Long userId = Long.valueOf(body.substring(0, separatorIndex));
+            boolean online = body.endsWith(":1");
+            nearCache.put(userId, new CachedPresence(online, System.currentTimeMillis() + nearCacheTtlMillis));
+        } catch (NumberFormatException e) {
+            log.warn("Invalid presence message: {}", body);
+        }
+    }
+
+    private String onlineKey(Long userId) {
+        return ONLINE_KEY_PREFIX + userId;
+    }
+
+    private String sessionsKey(Long userId) {
+        return SESSIONS_KEY_PREFIX + userId;
     }
-}
\ No newline at end of file
+}
@@ -1,58 +1,205 @@
 package com.umc.yeongkkeul.socket;
 
+import com.umc.yeongkkeul.apiPayload.code.status.ErrorStatus;
+import com.umc.yeongkkeul.apiPayload.exception.handler.ChatRoomMembershipHandler;
+import com.umc.yeongkkeul.apiPayload.exception.handler.UserHandler;
 import com.umc.yeongkkeul.security.FindLoginUser;
+import com.umc.yeongkkeul.security.TokenProvider;
+import com.umc.yeongkkeul.service.ChatRoomRosterCache;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
 @Component
 public class SocketSessionInterceptor implements ChannelInterceptor {
 
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    // 참여자 확인이 필요한 SEND 목적지 (뒤에 채팅방 ID)
+    static final String MESSAGE_DESTINATION_PREFIX = "/pub/chat.message.";
+    static final String READ_DESTINATION_PREFIX = "/pub/read.message.";
+    private static final String EXIT_DESTINATION_PREFIX = "/pub/chat.exit.";
+
+    // 세션 속성: 참여자 확인이 끝난 채팅방 ID -> 확인 만료 시각
+    private static final String VERIFIED_CHAT_ROOMS_ATTRIBUTE = "verifiedChatRoomIds";
+
     private final SocketConnectionTracker tracker;
+    private final TokenProvider tokenProvider;
+    private final ChatRoomRosterCache chatRoomRosterCache;
+    private final long membershipCacheTtlMillis; // 세션 안에서 참여자 확인 결과를 재사용하는 시간
 
     @Autowired
-    public SocketSessionInterceptor(SocketConnectionTracker tracker) {
+    public SocketSessionInterceptor(
+            SocketConnectionTracker tracker,
+            TokenProvider tokenProvider,
+            ChatRoomRosterCache chatRoomRosterCache,
+            @Value("${socket.membership.cache-ttl-ms}") long membershipCacheTtlMillis
+    ) {
         this.tracker = tracker;
+        this.tokenProvider = tokenProvider;
+        this.chatRoomRosterCache = chatRoomRosterCache;
+        this.membershipCacheTtlMillis = membershipCacheTtlMillis;
     }
 
     /**
      * 클라이언트에서 들어오는 메시지를 가로채어 STOMP 명령어에 따라
-     * 온라인/오프라인 상태를 업데이트합니다.
+     * 사용자 인증, 참여자 확인, 온라인/오프라인 상태를 처리합니다.
+     *
+     * CONNECT: Authorization 헤더의 JWT(없으면 핸드셰이크 인증 정보)로 사용자 ID를 한 번만 조회해
+     *          StompPrincipal로 세션에 저장하고, 세션을 온라인 상태로 기록합니다.
+     *
+     * SEND: 채팅 메시지/읽음 처리 목적지는 세션의 사용자가 해당 채팅방 참여자인지 확인합니다.
+     *       확인 결과는 세션 안에 membership.cache-ttl-ms 동안 보관하여 매 프레임마다 Redis에 묻지 않습니다.
      *
-     * CONNECT: 클라이언트 연결 시, Principal을 통해 사용자 이메일을 얻고,
-     *          이를 FindLoginUser.toId()로 변환해 사용자 ID를 획득한 후 온라인 상태로 기록합니다.
+     * HEARTBEAT 및 그 외 프레임: 세션의 마지막 활동 시간을 갱신합니다. (Redis 접근 없음)
      *
-     * DISCONNECT: 클라이언트 연결 종료 시, 동일한 방식으로 사용자 ID를 획득한 후 오프라인 상태로 처리합니다.
+     * DISCONNECT: 클라이언트 연결 종료 시(비정상 종료 포함), 세션을 제거하고 마지막 세션이면 오프라인 상태로 처리합니다.
      */
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
-        // STOMP 헤더 정보를 래핑합니다.
-        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
-        if (accessor.getCommand() == null) {
+        // CONNECT에서 setUser가 세션에 반영되도록 메시지에 연결된 accessor를 그대로 사용합니다.
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            accessor = StompHeaderAccessor.wrap(message);
+        }
+
+        String sessionId = accessor.getSessionId();
+        if (sessionId == null) {
+            return message;
+        }
+
+        if (SimpMessageType.HEARTBEAT.equals(accessor.getMessageType()) || accessor.getCommand() == null) {
+            tracker.touch(sessionId);
             return message;
         }
 
         // STOMP 명령어에 따라 처리합니다.
         if (StompCommand.CONNECT.equals(accessor.getCommand())) {
-            if (accessor.getUser() != null) {
-                // REST API와 동일하게 FindLoginUser를 통해 사용자 ID를 확인합니다.
-                String email = accessor.getUser().getName();
-                Long userId = FindLoginUser.toId(email);
-                tracker.setUserOnline(userId);
-                System.out.println("User " + userId + " is now ONLINE.");
+            StompPrincipal principal = authenticate(accessor);
+            accessor.setUser(principal);
+            if (accessor.getSessionAttributes() != null) {
+                accessor.getSessionAttributes().put(StompPrincipal.SESSION_ATTRIBUTE, principal);
             }
+
+            // heart-beat 헤더의 첫 번째 값: 클라이언트가 heartbeat를 보내는 주기 (0이면 보내지 않음)
+            long[] heartbeat = accessor.getHeartbeat();
+            tracker.connect(sessionId, principal.userId(), heartbeat[0] > 0);
+            log.info("User {} is now ONLINE. (session: {})", principal.userId(), sessionId);
         } else if (StompCommand.DISCONNECT.equals(accessor.getCommand())) {
-            if (accessor.getUser() != null) {
-                String email = accessor.getUser().getName();
-                Long userId = FindLoginUser.toId(email);
-                tracker.setUserOffline(userId);
-                System.out.println("User " + userId + " is now OFFLINE.");
+            tracker.disconnect(sessionId);
+            log.info("Session {} is now OFFLINE.", sessionId);
+        } else {
+            if (StompCommand.SEND.equals(accessor.getCommand())) {
+                checkMembership(accessor);
             }
+            tracker.touch(sessionId);
         }
         return message;
     }
-}
\ No newline at end of file
+
+    /**
+     * CONNECT 프레임의 사용자를 확인합니다. 사용자 ID 조회(MySQL)는 세션당 이 한 번뿐입니다.
+     */
+    private StompPrincipal authenticate(StompHeaderAccessor accessor) {
+
+        String email = null;
+
+        String bearerToken = accessor.getFirstNativeHeader(AUTHORIZATION_HEADER);
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(BEARER_PREFIX)) {
+            String token = bearerToken.substring(BEARER_PREFIX.length());
+            if (!tokenProvider.validateToken(token)) {
+                throw new UserHandler(ErrorStatus._INVALID_ACCESS_TOKEN);
+            }
+            email = tokenProvider.getEmailFromToken(token);
+        } else if (accessor.getUser() != null) {
+            // 핸드셰이크 요청에서 이미 인증된 경우
+            email = accessor.getUser().getName();
+        }
+
+        if (email == null) {
+            throw new UserHandler(ErrorStatus._UNAUTHORIZED);
+        }
+
+        return new StompPrincipal(FindLoginUser.toId(email), email);
+    }
+
+    /**
+     * 채팅 메시지/읽음 처리 SEND 프레임의 발신자가 채팅방 참여자인지 확인합니다.
+     * 퇴장 프레임은 이후 프레임부터 다시 확인하도록 세션의 확인 결과를 지웁니다.
+     */
+    private void checkMembership(StompHeaderAccessor accessor) {
+
+        String destination = accessor.getDestination();
+        if (destination == null) return;
+
+        Principal user = accessor.getUser();
+        if (!(user instanceof StompPrincipal principal)) {
+            throw new UserHandler(ErrorStatus._UNAUTHORIZED);
+        }
+
+        Map<Long, Long> verifiedChatRooms = verifiedChatRooms(accessor);
+
+        if (destination.startsWith(EXIT_DESTINATION_PREFIX)) {
+            Long chatRoomId = parseChatRoomId(destination, EXIT_DESTINATION_PREFIX);
+            if (chatRoomId != null && verifiedChatRooms != null) verifiedChatRooms.remove(chatRoomId);
+            return;
+        }
+
+        Long chatRoomId = null;
+        if (destination.startsWith(MESSAGE_DESTINATION_PREFIX)) {
+            chatRoomId = parseChatRoomId(destination, MESSAGE_DESTINATION_PREFIX);
+        } else if (destination.startsWith(READ_DESTINATION_PREFIX)) {
+            chatRoomId = parseChatRoomId(destination, READ_DESTINATION_PREFIX);
+        }
+        if (chatRoomId == null) return;
+
+        long now = System.currentTimeMillis();
+        Long expiresAt = (verifiedChatRooms == null) ? null : verifiedChatRooms.get(chatRoomId);
+        if (expiresAt != null && expiresAt > now) return;
+
+        if (!chatRoomRosterCache.isMember(chatRoomId, principal.userId())) {
+            log.warn("User {} is not a member of chat room {}. Reject SEND to {}.", principal.userId(), chatRoomId, destination);
+            throw new ChatRoomMembershipHandler(ErrorStatus._CHATROOMMEMBERSHIP_NOT_MEMBER);
+        }
+
+        if (verifiedChatRooms != null) verifiedChatRooms.put(chatRoomId, now + membershipCacheTtlMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Long> verifiedChatRooms(StompHeaderAccessor accessor) {
+
+        Map<String, Object> sessionAttributes = accessor.getSessionAttributes();
+        if (sessionAttributes == null) return null;
+
+        return (Map<Long, Long>) sessionAttributes.computeIfAbsent(VERIFIED_CHAT_ROOMS_ATTRIBUTE, key -> new ConcurrentHashMap<Long, Long>());
+    }
+
+    // "/pub/chat.message.12" -> 12
+    static Long parseChatRoomId(String destination, String prefix) {
+
+        String chatRoomId = destination.substring(prefix.length());
+        int separatorIndex = chatRoomId.indexOf('.');
+        if (separatorIndex >= 0) chatRoomId = chatRoomId.substring(0, separatorIndex);
+
+        try {
+            return Long.valueOf(chatRoomId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
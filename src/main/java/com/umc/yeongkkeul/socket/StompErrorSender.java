@@ -0,0 +1,66 @@
+package com.umc.yeongkkeul.socket;
+
+import com.umc.yeongkkeul.apiPayload.ApiResponse;
+import com.umc.yeongkkeul.apiPayload.code.ErrorReasonDTO;
+import com.umc.yeongkkeul.apiPayload.code.status.ErrorStatus;
+import com.umc.yeongkkeul.apiPayload.exception.GeneralException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/**
+ * StompErrorSender 클래스
+ * STOMP 핸들러에서 발생한 예외를 요청한 세션의 /user/queue/errors로 전달하는 컴포넌트.
+ *
+ * 인바운드 스레드의 예외는 ChatController의 @MessageExceptionHandler가 같은 형식으로 응답하고,
+ * ChatRoomLaneExecutor의 레인 스레드에서 발생한 예외는 이 컴포넌트로 직접 전송합니다.
+ * 응답은 REST API와 같은 ApiResponse 실패 형식(isSuccess, code, message)입니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StompErrorSender {
+
+    public static final String ERROR_DESTINATION = "/queue/errors";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    /**
+     * 예외를 클라이언트에 보낼 실패 응답으로 변환합니다.
+     * GeneralException이 아닌 예외는 내부 정보를 노출하지 않도록 COMMON500으로 응답합니다.
+     */
+    public static ApiResponse<Object> toResponse(Throwable e) {
+
+        ErrorReasonDTO reason = (e instanceof GeneralException generalException)
+                ? generalException.getErrorReason()
+                : ErrorStatus._INTERNAL_SERVER_ERROR.getReason();
+
+        return ApiResponse.onFailure(reason.getCode(), reason.getMessage(), null);
+    }
+
+    /**
+     * 예외를 해당 사용자의 한 세션에만 전송합니다. (같은 사용자의 다른 기기에는 보내지 않음)
+     * 세션이 이미 끊어진 경우 등 전송에 실패하면 로그만 남깁니다.
+     */
+    public void send(Principal user, String sessionId, Throwable e) {
+
+        if (user == null || sessionId == null) return;
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setLeaveMutable(true);
+        MessageHeaders headers = accessor.getMessageHeaders();
+
+        try {
+            messagingTemplate.convertAndSendToUser(user.getName(), ERROR_DESTINATION, toResponse(e), headers);
+        } catch (RuntimeException sendException) {
+            log.warn("Failed to send STOMP error to session {}: {}", sessionId, sendException.getMessage());
+        }
+    }
+}
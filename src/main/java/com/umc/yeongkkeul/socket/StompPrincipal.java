@@ -0,0 +1,24 @@
+package com.umc.yeongkkeul.socket;
+
+import java.security.Principal;
+
+/**
+ * StompPrincipal 레코드
+ * STOMP CONNECT 시 JWT로 한 번 확인한 사용자 정보.
+ *
+ * 세션의 모든 프레임에 simpUser로 전달되므로, @MessageMapping 핸들러는 파라미터로 받아 DB 조회 없이 발신자를 확인합니다.
+ * getName()은 기존 인증 정보와 같이 이메일을 반환합니다.
+ *
+ * @param userId 사용자의 고유 ID
+ * @param email JWT subject(이메일)
+ */
+public record StompPrincipal(Long userId, String email) implements Principal {
+
+    // STOMP 세션 속성에 저장할 때 사용하는 키
+    public static final String SESSION_ATTRIBUTE = "stompPrincipal";
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
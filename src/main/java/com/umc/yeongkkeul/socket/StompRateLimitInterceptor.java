@@ -0,0 +1,223 @@
+package com.umc.yeongkkeul.socket;
+
+import com.umc.yeongkkeul.apiPayload.code.status.ErrorStatus;
+import com.umc.yeongkkeul.apiPayload.exception.handler.ChatRoomHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * StompRateLimitInterceptor 클래스
+ * 채팅 메시지(/pub/chat.message.{roomId})와 읽음 처리(/pub/read.message.{roomId}) SEND 프레임을
+ * 사용자별, 채팅방별 Token Bucket으로 제한하는 인터셉터.
+ *
+ * SocketSessionInterceptor보다 먼저 실행되어, 제한을 넘은 프레임은 참여자 확인과 ChatService를 거치지 않고 ERROR 프레임으로 거절됩니다.
+ *
+ * LOCAL: 버킷을 서버의 메모리에 두고, 서버마다 따로 제한합니다.
+ * REDIS: rate:stomp:user:{id}, rate:stomp:room:{id} 해시에 버킷을 두고 Lua 스크립트 한 번으로 두 버킷을 함께 확인합니다.
+ *        Redis에 접근할 수 없으면 프레임을 허용합니다. (제한 때문에 채팅이 멈추지 않도록)
+ *
+ * chat.rate-limit.throttled{scope, destination}: 거절된 프레임 수
+ */
+@Slf4j
+@Component
+public class StompRateLimitInterceptor implements ChannelInterceptor {
+
+    public enum Mode { LOCAL, REDIS }
+
+    private static final String USER_KEY_PREFIX = "rate:stomp:user:";
+    private static final String ROOM_KEY_PREFIX = "rate:stomp:room:";
+
+    // 두 버킷을 채운 뒤 모두 토큰이 있을 때만 하나씩 차감
+    // 반환: 0(허용), 1(사용자 제한), 2(채팅방 제한)
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "local time = redis.call('TIME') " +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) " +
+            "local tokens = {} " +
+            "for i = 1, 2 do " +
+            "  local capacity = tonumber(ARGV[i * 2 - 1]) local refill = tonumber(ARGV[i * 2]) " +
+            "  local bucket = redis.call('HMGET', KEYS[i], 'tokens', 'ts') " +
+            "  local current = tonumber(bucket[1]) or capacity local ts = tonumber(bucket[2]) or now " +
+            "  tokens[i] = math.min(capacity, current + math.max(0, now - ts) * refill / 1000) " +
+            "end " +
+            "local result = 0 " +
+            "if tokens[1] < 1 then result = 1 elseif tokens[2] < 1 then result = 2 " +
+            "else tokens[1] = tokens[1] - 1 tokens[2] = tokens[2] - 1 end " +
+            "for i = 1, 2 do " +
+            "  redis.call('HSET', KEYS[i], 'tokens', tostring(tokens[i]), 'ts', now) " +
+            "  redis.call('PEXPIRE', KEYS[i], ARGV[5]) " +
+            "end " +
+            "return result",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Mode mode;
+    private final BucketSpec userSpec;
+    private final BucketSpec roomSpec;
+    private final long bucketTtlMillis; // 버킷이 가득 찰 때까지 걸리는 시간, 이 시간 동안 쓰이지 않은 버킷은 제거
+
+    // LOCAL 모드의 버킷
+    private final Map<Long, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+    private final Map<Long, TokenBucket> roomBuckets = new ConcurrentHashMap<>();
+
+    private record BucketSpec(double capacity, double refillPerSecond) {
+
+        long fullRefillMillis() {
+            return (long) Math.ceil(capacity / refillPerSecond * 1000);
+        }
+    }
+
+    private static class TokenBucket {
+
+        private final BucketSpec spec;
+        private double tokens;
+        private long refilledAtNanos;
+
+        TokenBucket(BucketSpec spec) {
+            this.spec = spec;
+            this.tokens = spec.capacity();
+            this.refilledAtNanos = System.nanoTime();
+        }
+
+        synchronized boolean tryAcquire() {
+            refill();
+            if (tokens < 1) return false;
+            tokens -= 1;
+            return true;
+        }
+
+        synchronized void release() {
+            tokens = Math.min(spec.capacity(), tokens + 1);
+        }
+
+        synchronized boolean isIdle(long idleNanos) {
+            return System.nanoTime() - refilledAtNanos > idleNanos;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(spec.capacity(), tokens + (now - refilledAtNanos) / 1e9 * spec.refillPerSecond());
+            refilledAtNanos = now;
+        }
+    }
+
+    public StompRateLimitInterceptor(
+            StringRedisTemplate stringRedisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${socket.rate-limit.mode}") Mode mode,
+            @Value("${socket.rate-limit.user.capacity}") double userCapacity,
+            @Value("${socket.rate-limit.user.refill-per-second}") double userRefillPerSecond,
+            @Value("${socket.rate-limit.room.capacity}") double roomCapacity,
+            @Value("${socket.rate-limit.room.refill-per-second}") double roomRefillPerSecond
+    ) {
+
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.mode = mode;
+        this.userSpec = new BucketSpec(userCapacity, userRefillPerSecond);
+        this.roomSpec = new BucketSpec(roomCapacity, roomRefillPerSecond);
+        this.bucketTtlMillis = Math.max(userSpec.fullRefillMillis(), roomSpec.fullRefillMillis()) + 1000;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.SEND.equals(accessor.getCommand())) return message;
+
+        String destination = accessor.getDestination();
+        if (destination == null) return message;
+
+        String destinationTag;
+        Long chatRoomId;
+        if (destination.startsWith(SocketSessionInterceptor.MESSAGE_DESTINATION_PREFIX)) {
+            destinationTag = "message";
+            chatRoomId = SocketSessionInterceptor.parseChatRoomId(destination, SocketSessionInterceptor.MESSAGE_DESTINATION_PREFIX);
+        } else if (destination.startsWith(SocketSessionInterceptor.READ_DESTINATION_PREFIX)) {
+            destinationTag = "read";
+            chatRoomId = SocketSessionInterceptor.parseChatRoomId(destination, SocketSessionInterceptor.READ_DESTINATION_PREFIX);
+        } else {
+            return message;
+        }
+
+        // 사용자 확인은 SocketSessionInterceptor에서 처리
+        if (chatRoomId == null || !(accessor.getUser() instanceof StompPrincipal principal)) return message;
+
+        String throttledScope = (mode == Mode.REDIS)
+                ? acquireFromRedis(principal.userId(), chatRoomId)
+                : acquireLocally(principal.userId(), chatRoomId);
+
+        if (throttledScope != null) {
+            Counter.builder("chat.rate-limit.throttled")
+                    .description("Token Bucket 제한으로 거절된 STOMP SEND 프레임 수")
+                    .tag("scope", throttledScope)
+                    .tag("destination", destinationTag)
+                    .register(meterRegistry)
+                    .increment();
+            log.debug("Throttled SEND to {} by user {} ({} limit).", destination, principal.userId(), throttledScope);
+            throw new ChatRoomHandler(ErrorStatus._CHATROOM_RATE_LIMITED);
+        }
+
+        return message;
+    }
+
+    // @return 제한된 버킷 ("user", "room"), 허용되면 null
+    private String acquireLocally(Long userId, Long chatRoomId) {
+
+        TokenBucket userBucket = userBuckets.computeIfAbsent(userId, id -> new TokenBucket(userSpec));
+        if (!userBucket.tryAcquire()) return "user";
+
+        TokenBucket roomBucket = roomBuckets.computeIfAbsent(chatRoomId, id -> new TokenBucket(roomSpec));
+        if (!roomBucket.tryAcquire()) {
+            userBucket.release(); // 거절된 프레임은 사용자 버킷에서도 차감하지 않음
+            return "room";
+        }
+
+        return null;
+    }
+
+    private String acquireFromRedis(Long userId, Long chatRoomId) {
+
+        try {
+            Long result = stringRedisTemplate.execute(ACQUIRE_SCRIPT,
+                    List.of(USER_KEY_PREFIX + userId, ROOM_KEY_PREFIX + chatRoomId),
+                    String.valueOf(userSpec.capacity()), String.valueOf(userSpec.refillPerSecond()),
+                    String.valueOf(roomSpec.capacity()), String.valueOf(roomSpec.refillPerSecond()),
+                    String.valueOf(bucketTtlMillis));
+
+            if (result == null || result == 0) return null;
+            return (result == 1) ? "user" : "room";
+        } catch (RuntimeException e) {
+            log.warn("Failed to check rate limit in Redis. Allow the frame: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * LOCAL 모드에서 다시 가득 찰 만큼 쓰이지 않은 버킷을 제거합니다.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleBuckets() {
+
+        long idleNanos = bucketTtlMillis * 1_000_000;
+        userBuckets.values().removeIf(bucket -> bucket.isIdle(idleNanos));
+        roomBuckets.values().removeIf(bucket -> bucket.isIdle(idleNanos));
+    }
+}
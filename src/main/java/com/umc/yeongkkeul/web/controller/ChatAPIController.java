@@ -7,6 +7,8 @@ import com.umc.yeongkkeul.web.dto.chat.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +17,7 @@ import org.springframework.http.*;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -32,26 +35,29 @@ public class ChatAPIController {
     private final ChatService chatService;
 
     /**
-     * 특정 채팅방의 모든 메시지를 조회.
-     * 클라이언트가 REST API로 "/chat/{chatRoomId}" 경로에 GET 요청을 보낼 때 호출.
+     * 특정 채팅방의 메시지를 커서 기준으로 limit개씩 조회.
+     * before와 after가 모두 없으면 가장 최근 메시지부터 조회합니다.
      *
-     * @param chatRoomId  조회할 채팅방 ID
-     * @return ResponseEntity<List<MessageDto>> 채팅 메시지 리스트
-     *
-     * 주의: 이 API는 단순히 테스트 용도로 사용.
+     * @param chatRoomId 조회할 채팅방 ID
+     * @param beforeMessageId 이 메시지 ID보다 이전 메시지를 최신순으로 조회
+     * @param afterMessageId 이 메시지 ID보다 이후 메시지를 오래된 순으로 조회 (before보다 우선)
+     * @param limit 한 번에 조회할 메시지 수
      */
-    @GetMapping("/{chatRoomId}/messages/test")
-    @Operation(summary = "특정 채팅방 메시지 조회 - 테스트 용도", description = "특정 채팅방의 모든 메시지를 조회합니다. 실제 환경에서 채팅방의 모든 메시지를 가져오는 것은 성능의 문제가 있으므로 테스트 용도로 사용합니다.")
-    public ApiResponse<List<MessageDto>> getChatMessages(@PathVariable Long chatRoomId) {
+    @GetMapping("/{chatRoomId}/messages/history")
+    @Operation(summary = "특정 채팅방 메시지 기록 조회", description = "채팅방 메시지를 커서(before/after 메시지 ID) 기준으로 limit개씩 조회합니다. 응답의 nextCursor를 다음 요청의 before(또는 after)로 사용합니다.")
+    public ApiResponse<ChatMessagePageResponseDto> getChatMessages(
+            @PathVariable Long chatRoomId,
+            @RequestParam(value = "before", required = false) Long beforeMessageId,
+            @RequestParam(value = "after", required = false) Long afterMessageId,
+            @RequestParam(value = "limit", defaultValue = "30") @Min(1) @Max(100) int limit
+    ) {
 
         Long userId = toId(getCurrentUserId());
 
-        List<MessageDto> messageDtos = chatService.getMessages(chatRoomId);
-
-        return ApiResponse.onSuccess(messageDtos);
+        return ApiResponse.onSuccess(chatService.getMessagePage(userId, chatRoomId, beforeMessageId, afterMessageId, limit));
     }
 
-    @Operation(summary = "특정 채팅방의 메시지 동기화(조회)", description = "웹소켓이 재연결되거나 오류로 인해 메시지를 받지 못할 경우를 생각해서 특정 채팅방에 들어가면 항상 이 API를 호출합니다. 인터넷에 연결되지 않거나 다른 이유로 정상적인 응답을 받지 못하면 기존에 클라이언트에 저장되었던 정보를 화면에 유지합니다.")
+    @Operation(summary = "특정 채팅방의 메시지 동기화(조회)", description = "웹소켓이 재연결되거나 오류로 인해 메시지를 받지 못할 경우를 생각해서 특정 채팅방에 들어가면 항상 이 API를 호출합니다. 인터넷에 연결되지 않거나 다른 이유로 정상적인 응답을 받지 못하면 기존에 클라이언트에 저장되었던 정보를 화면에 유지합니다. 최근 메시지부터 최대 100개를 최신순으로 반환하며, 100개를 받으면 가장 오래된 메시지 ID를 before로 메시지 기록 조회 API를 이어서 호출합니다.")
     @GetMapping("/{chatRoomId}/messages")
     public ApiResponse<List<MessageDto>> synchronizationChatMessages(@PathVariable Long chatRoomId, @RequestParam("messageId") Long lastClientMessageId) {
 
@@ -139,33 +145,86 @@ public class ChatAPIController {
     }
     /**
      * 채팅방에 업로드된 이미지 목록 조회 API
-     * messageType이 "IMAGE"인 메시지의 S3 key를 활용해 이미지 URL을 생성합니다.
+     * 채팅방별 이미지 인덱스에 저장된 S3 key를 활용해 이미지 URL을 생성합니다.
      */
     @GetMapping("/{chatRoomId}/images")
-    @Operation(summary = "채팅방 이미지 조회", description = "채팅방에 업로드된 이미지 목록(이미지 URL)을 조회합니다.")
-    public ApiResponse<List<ImageChatResponseDTO>> getChatRoomImages(@PathVariable Long chatRoomId) {
-        List<ImageChatResponseDTO> imageUrls = chatService.getChatRoomImageUrls(chatRoomId);
+    @Operation(summary = "채팅방 이미지 조회", description = "채팅방에 업로드된 이미지 목록(이미지 URL)을 최신순으로 limit개씩 조회합니다. 마지막 이미지의 messageId를 다음 요청의 before로 사용합니다.")
+    public ApiResponse<List<ImageChatResponseDTO>> getChatRoomImages(
+            @PathVariable Long chatRoomId,
+            @RequestParam(value = "before", required = false) Long beforeMessageId,
+            @RequestParam(value = "limit", defaultValue = "30") @Min(1) @Max(100) int limit
+    ) {
+        List<ImageChatResponseDTO> imageUrls = chatService.getChatRoomImageUrls(chatRoomId, beforeMessageId, limit);
         return ApiResponse.onSuccess(imageUrls);
     }
 
     /**
      * 채팅방 이미지 다운로드 API
-     * 특정 이미지 메시지(messageId)에 대해, S3에서 파일 데이터를 다운로드한 후 원본 콘텐츠 타입에 맞게 응답 헤더를 설정합니다.
+     * 특정 이미지 메시지(messageId)에 대해, S3의 파일을 메모리에 모두 읽지 않고 응답으로 바로 스트리밍합니다.
+     * Range 헤더(단일 범위)로 일부만 받을 수 있고, If-None-Match 헤더의 ETag가 같으면 304를 반환합니다.
      */
     @GetMapping("/{chatRoomId}/images/{messageId}/download")
-    @Operation(summary = "채팅방 이미지 다운로드", description = "채팅방에 업로드된 이미지를 다운로드합니다.")
-    public ResponseEntity<byte[]> downloadChatImage(@PathVariable Long chatRoomId, @PathVariable Long messageId) {
-        AmazonS3Manager.S3DownloadResponse downloadResponse = chatService.downloadChatImage(chatRoomId, messageId);
+    @Operation(summary = "채팅방 이미지 다운로드", description = "채팅방에 업로드된 이미지를 다운로드합니다. Range, If-None-Match 헤더를 지원합니다.")
+    public ResponseEntity<StreamingResponseBody> downloadChatImage(
+            @PathVariable Long chatRoomId,
+            @PathVariable Long messageId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        HttpRange range = parseSingleRange(rangeHeader);
+
+        AmazonS3Manager.S3StreamResponse downloadResponse = chatService.downloadChatImage(chatRoomId, messageId, unquoteETag(ifNoneMatch), range);
 
         HttpHeaders headers = new HttpHeaders();
+        if (downloadResponse.getETag() != null) {
+            headers.setETag("\"" + downloadResponse.getETag() + "\"");
+        }
+
+        if (downloadResponse.isNotModified()) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+
         // S3에 저장된 원본 콘텐츠 타입을 사용합니다.
         headers.setContentType(MediaType.parseMediaType(downloadResponse.getContentType()));
-        headers.setContentLength(downloadResponse.getData().length);
+        headers.setContentLength(downloadResponse.getContentLength());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
         headers.setContentDisposition(ContentDisposition.builder("attachment")
                 .filename("message_" + messageId)
                 .build());
 
-        return new ResponseEntity<>(downloadResponse.getData(), headers, HttpStatus.OK);
+        HttpStatus status = HttpStatus.OK;
+        if (downloadResponse.isPartial()) {
+            Long[] contentRange = downloadResponse.getContentRange();
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + contentRange[0] + "-" + contentRange[1] + "/" + downloadResponse.getInstanceLength());
+            status = HttpStatus.PARTIAL_CONTENT;
+        }
+
+        return new ResponseEntity<>(downloadResponse::writeTo, headers, status);
+    }
+
+    // 잘못된 Range 헤더나 여러 범위(multipart/byteranges)는 무시하고 전체 파일을 반환
+    private HttpRange parseSingleRange(String rangeHeader) {
+
+        if (rangeHeader == null) return null;
+
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return (ranges.size() == 1) ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // "\"etag\"", W/"etag" -> etag (S3 SDK는 따옴표 없는 ETag를 사용)
+    private String unquoteETag(String eTag) {
+
+        if (eTag == null) return null;
+
+        String value = eTag.trim();
+        if (value.startsWith("W/")) value = value.substring(2);
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) value = value.substring(1, value.length() - 1);
+
+        return value;
     }
 
     /**
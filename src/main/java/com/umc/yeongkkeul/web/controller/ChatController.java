@@ -1,9 +1,13 @@
 package com.umc.yeongkkeul.web.controller;
 
 import com.github.f4b6a3.tsid.TsidCreator;
+import com.umc.yeongkkeul.apiPayload.ApiResponse;
 import com.umc.yeongkkeul.apiPayload.code.status.ErrorStatus;
 import com.umc.yeongkkeul.apiPayload.exception.handler.ChatRoomHandler;
+import com.umc.yeongkkeul.service.ChatRoomLaneExecutor;
 import com.umc.yeongkkeul.service.ChatService;
+import com.umc.yeongkkeul.socket.StompErrorSender;
+import com.umc.yeongkkeul.socket.StompPrincipal;
 import com.umc.yeongkkeul.web.dto.chat.ReadMessageRequestDto;
 import com.umc.yeongkkeul.web.dto.chat.EnterMessageDto;
 import com.umc.yeongkkeul.web.dto.chat.MessageDto;
@@ -12,7 +16,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.AmqpException;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.socket.messaging.SessionConnectEvent;
@@ -24,6 +32,8 @@ import java.time.LocalDateTime;
  * ChatController 클래스
  * 채팅 메시지 전송, 입장, 퇴장, 채팅방 내 메시지 조회 등의 기능을 제공하는 컨트롤러 클래스.
  * STOMP 메시지와 REST API를 함께 사용하여 채팅 기능을 구현.
+ * STOMP 메시지는 ChatRoomLaneExecutor에서 채팅방별로 순서대로 처리.
+ * STOMP 처리 중 오류(레인 거절 포함)는 요청한 세션의 /user/queue/errors로 전달.
  */
 @Slf4j
 @RestController
@@ -31,21 +41,34 @@ import java.time.LocalDateTime;
 public class ChatController {
 
     private final ChatService chatService;
+    private final ChatRoomLaneExecutor chatRoomLaneExecutor;
+    private final StompErrorSender stompErrorSender;
 
     /**
      * 채팅 메시지를 특정 채팅방(roomId)으로 전송.
      * 클라이언트가 STOMP 프로토콜을 사용해 "chat.message.{roomId}" 경로로 메시지를 전송하면 처리.
+     * 발신자와 채팅방은 payload가 아닌 세션의 사용자와 경로에서 가져온다. (참여자 확인은 SocketSessionInterceptor에서 처리)
      *
      * @param roomId      채팅방 ID (STOMP 경로 변수)
      * @param messageDto  전송된 메시지 데이터
+     * @param principal   CONNECT 시 확인된 사용자
+     * @param sessionId   요청한 STOMP 세션 ID (처리 중 오류를 이 세션에 전달)
      */
     @MessageMapping("chat.message.{roomId}")
-    public void sendMessage(@DestinationVariable String roomId, @RequestBody MessageDto messageDto) {
-
-        MessageDto message = chatService.sendMessage(messageDto);// 메시지 전송
-
-        log.info("Send a message to the group chat room with roomID {}", roomId);
-        chatService.saveMessages(message); // 메시지 저장 TODO: 나중에 Consumer를 통해서 저장하자
+    public void sendMessage(@DestinationVariable Long roomId, @RequestBody MessageDto messageDto, StompPrincipal principal,
+                            @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+
+        executeInLane(roomId, principal, sessionId, () -> {
+            // 메시지 전송 (같은 clientMessageId의 재전송이면 전송, 저장하지 않음)
+            chatService.sendMessage(messageDto.toBuilder()
+                    .chatRoomId(roomId)
+                    .senderId(principal.userId())
+                    .build())
+                    .ifPresent(message -> {
+                        log.info("Send a message to the group chat room with roomID {}", roomId);
+                        chatService.saveMessages(message); // Redis 최근 메시지에만 저장 (MySQL 저장은 chat.queue Consumer가 모아서 처리)
+                    });
+        });
     }
 
     /**
@@ -54,39 +77,46 @@ public class ChatController {
      *
      * @param roomId      채팅방 ID
      * @param enterMessageDto  전송된 메시지 데이터
+     * @param principal   CONNECT 시 확인된 사용자
+     * @param sessionId   요청한 STOMP 세션 ID (처리 중 오류를 이 세션에 전달)
      */
     @MessageMapping("chat.enter.{roomId}")
-    public void enterUser(@DestinationVariable("roomId") Long roomId, EnterMessageDto enterMessageDto) {
-
-        // 비밀번호 재확인 -> 앞선 과정에서 했지만 보안을 위해서 한 번 더 해야한다.
-        if (!chatService.validateChatRoomPassword(enterMessageDto.chatRoomId(), enterMessageDto.password())) {
-            log.error("채팅방의 비밀번호가 일치하지 않습니다.");
-            throw new ChatRoomHandler(ErrorStatus._CHATROOM_NO_PERMISSION);
-        }
-
-        // 유저 입장을 알리는 메시지 생성
-        MessageDto messageDto = MessageDto.builder()
-                .id(TsidCreator.getTsid().toLong()) // 메시지 ID
-                .messageType(enterMessageDto.messageType()) // 메시지 타입
-                .content(enterMessageDto.senderId() + "님이 채팅방에 입장하였습니다.") // 입장 메시지 내용
-                .chatRoomId(enterMessageDto.chatRoomId()) // 채팅방 ID
-                .senderId(enterMessageDto.senderId()) // 발신자 ID
-                .timestamp(LocalDateTime.now().toString()) // 메시지 타임스탬프
-                .unreadCount(0)
-                .rabbitMQTransmissionStatus(true)
-                .finalTransmissionStatus(true)
-                .saveStatus(true)
-                .build();
-
-        // 사용자-채팅방 관계 테이블 저장과 가입 메시지 전송.
-        try {
-            chatService.joinChatRoom(enterMessageDto.senderId(), roomId, messageDto);
-        } catch (AmqpException e) {
-            log.error("The message was not sent by AmqpException {}.", e); return;
-        }
-
-        log.info("The user with senderID {} has entered the chat room {}.", enterMessageDto.senderId(), roomId); // JPA 저장과 메시지 전송이 성공함.
-        chatService.saveMessages(messageDto); // Redis에 가입 메시지 저장
+    public void enterUser(@DestinationVariable("roomId") Long roomId, EnterMessageDto enterMessageDto, StompPrincipal principal,
+                          @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+
+        executeInLane(roomId, principal, sessionId, () -> {
+            Long senderId = principal.userId();
+
+            // 비밀번호 재확인 -> 앞선 과정에서 했지만 보안을 위해서 한 번 더 해야한다.
+            if (!chatService.validateChatRoomPassword(roomId, enterMessageDto.password())) {
+                log.error("채팅방의 비밀번호가 일치하지 않습니다.");
+                throw new ChatRoomHandler(ErrorStatus._CHATROOM_NO_PERMISSION);
+            }
+
+            // 유저 입장을 알리는 메시지 생성
+            MessageDto messageDto = MessageDto.builder()
+                    .id(TsidCreator.getTsid().toLong()) // 메시지 ID
+                    .messageType(enterMessageDto.messageType()) // 메시지 타입
+                    .content(senderId + "님이 채팅방에 입장하였습니다.") // 입장 메시지 내용
+                    .chatRoomId(roomId) // 채팅방 ID
+                    .senderId(senderId) // 발신자 ID
+                    .timestamp(LocalDateTime.now().toString()) // 메시지 타임스탬프
+                    .unreadCount(0)
+                    .rabbitMQTransmissionStatus(true)
+                    .finalTransmissionStatus(true)
+                    .saveStatus(true)
+                    .build();
+
+            // 사용자-채팅방 관계 테이블 저장과 가입 메시지 전송.
+            try {
+                chatService.joinChatRoom(senderId, roomId, messageDto);
+            } catch (AmqpException e) {
+                log.error("The message was not sent by AmqpException {}.", e); return;
+            }
+
+            log.info("The user with senderID {} has entered the chat room {}.", senderId, roomId); // JPA 저장과 메시지 전송이 성공함.
+            chatService.saveMessages(messageDto); // Redis에 가입 메시지 저장
+        });
     }
 
     /**
@@ -95,32 +125,39 @@ public class ChatController {
      *
      * @param roomId      채팅방 ID
      * @param messageDto  전송된 메시지 데이터
+     * @param principal   CONNECT 시 확인된 사용자
+     * @param sessionId   요청한 STOMP 세션 ID (처리 중 오류를 이 세션에 전달)
      */
     @MessageMapping("chat.exit.{roomId}")
-    public void exitUser(@DestinationVariable("roomId") Long roomId, MessageDto messageDto) {
-
-        // 유저 퇴장을 알리는 메시지 생성
-        MessageDto exitMessageDto = MessageDto.builder()
-                .id(TsidCreator.getTsid().toLong())
-                .messageType(messageDto.messageType())
-                .content(messageDto.senderId() + "님이 채팅방에 퇴장하였습니다.")
-                .chatRoomId(messageDto.chatRoomId())
-                .senderId(messageDto.senderId())
-                .timestamp(LocalDateTime.now().toString())
-                .unreadCount(0)
-                .rabbitMQTransmissionStatus(true)
-                .finalTransmissionStatus(true)
-                .saveStatus(true)
-                .build();
-
-        try {
-            chatService.exitChatRoom(messageDto.senderId(), roomId, exitMessageDto);
-        } catch (AmqpException e) {
-            log.error("The message was not sent by AmqpException {}.", e); return;
-        }
-
-        log.info("The user with senderID {} has left the chat room {}.", exitMessageDto.senderId(), roomId);
-        chatService.saveMessages(exitMessageDto);
+    public void exitUser(@DestinationVariable("roomId") Long roomId, MessageDto messageDto, StompPrincipal principal,
+                         @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+
+        executeInLane(roomId, principal, sessionId, () -> {
+            Long senderId = principal.userId();
+
+            // 유저 퇴장을 알리는 메시지 생성
+            MessageDto exitMessageDto = MessageDto.builder()
+                    .id(TsidCreator.getTsid().toLong())
+                    .messageType(messageDto.messageType())
+                    .content(senderId + "님이 채팅방에 퇴장하였습니다.")
+                    .chatRoomId(roomId)
+                    .senderId(senderId)
+                    .timestamp(LocalDateTime.now().toString())
+                    .unreadCount(0)
+                    .rabbitMQTransmissionStatus(true)
+                    .finalTransmissionStatus(true)
+                    .saveStatus(true)
+                    .build();
+
+            try {
+                chatService.exitChatRoom(senderId, roomId, exitMessageDto);
+            } catch (AmqpException e) {
+                log.error("The message was not sent by AmqpException {}.", e); return;
+            }
+
+            log.info("The user with senderID {} has left the chat room {}.", exitMessageDto.senderId(), roomId);
+            chatService.saveMessages(exitMessageDto);
+        });
     }
 
     // 유저가 특정 채팅방의 방장일 때, 특정 사용자를 퇴출시키는 경우
@@ -128,29 +165,36 @@ public class ChatController {
     public void expelUser(
             @DestinationVariable("roomId") Long roomId,
             @DestinationVariable("targetUserId") Long targetUserId, // 퇴장시키고자 하는 특정 유저
-            MessageDto messageDto
+            MessageDto messageDto,
+            StompPrincipal principal,
+            @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId
     ) {
-        // 유저 퇴장을 알리는 메시지 생성
-        MessageDto expelMessageDto = MessageDto.builder()
-                .id(TsidCreator.getTsid().toLong())
-                .messageType(messageDto.messageType())
-                .content(targetUserId + "님을 채팅방에서 내보냈습니다.")
-                .chatRoomId(messageDto.chatRoomId())
-                .senderId(messageDto.senderId())
-                .timestamp(LocalDateTime.now().toString())
-                .unreadCount(0)
-                .rabbitMQTransmissionStatus(true)
-                .finalTransmissionStatus(true)
-                .saveStatus(true)
-                .build();
-
-        try {
-            chatService.expelChatRoom(messageDto.senderId(), targetUserId, roomId, messageDto);
-        } catch (AmqpException e) {
-            log.error("The message was not sent by AmqpException {}.", e); return;
-        }
-        log.info("The user with targetUserId has been kicked out of the chat room.");
-        chatService.saveMessages(expelMessageDto);
+
+        executeInLane(roomId, principal, sessionId, () -> {
+            Long senderId = principal.userId();
+
+            // 유저 퇴장을 알리는 메시지 생성
+            MessageDto expelMessageDto = MessageDto.builder()
+                    .id(TsidCreator.getTsid().toLong())
+                    .messageType(messageDto.messageType())
+                    .content(targetUserId + "님을 채팅방에서 내보냈습니다.")
+                    .chatRoomId(roomId)
+                    .senderId(senderId)
+                    .timestamp(LocalDateTime.now().toString())
+                    .unreadCount(0)
+                    .rabbitMQTransmissionStatus(true)
+                    .finalTransmissionStatus(true)
+                    .saveStatus(true)
+                    .build();
+
+            try {
+                chatService.expelChatRoom(senderId, targetUserId, roomId, expelMessageDto);
+            } catch (AmqpException e) {
+                log.error("The message was not sent by AmqpException {}.", e); return;
+            }
+            log.info("The user with targetUserId has been kicked out of the chat room.");
+            chatService.saveMessages(expelMessageDto);
+        });
     }
 
     // 새로운 사용자가 웹 소켓을 연결할 때 실행됨
@@ -159,10 +203,9 @@ public class ChatController {
 
         StompHeaderAccessor headerAccesor = StompHeaderAccessor.wrap(event.getMessage());
         String sessionId = headerAccesor.getSessionId();
+        Long userId = (headerAccesor.getUser() instanceof StompPrincipal principal) ? principal.userId() : null;
 
-        // TODO: 로그인 정보 포함
-
-        log.info("Received a new web socket connection : {}", sessionId);
+        log.info("Received a new web socket connection : {} (user: {})", sessionId, userId);
     }
 
     // 사용자가 웹 소켓 연결을 끊으면 실행됨
@@ -178,8 +221,32 @@ public class ChatController {
     }
 
     @MessageMapping("read.message.{roomId}")
-    public void readMessage(@DestinationVariable("roomId") Long roomId, ReadMessageRequestDto readMessageRequestDto) {
+    public void readMessage(@DestinationVariable("roomId") Long roomId, ReadMessageRequestDto readMessageRequestDto, StompPrincipal principal,
+                            @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+
+        executeInLane(roomId, principal, sessionId, () -> {
+            chatService.readMessage(roomId, principal.userId(), Long.parseLong(readMessageRequestDto.lastClientMessageId()), Long.parseLong(readMessageRequestDto.recentClientMessageId()));
+        });
+    }
+
+    /**
+     * 채팅방의 레인에서 작업을 실행하고, 레인 스레드에서 발생한 예외는 요청한 세션에 전달합니다.
+     * 레인이 가득 차 거절된 경우(_CHATROOM_BUSY)는 인바운드 스레드에서 던져지므로 handleStompException에서 응답합니다.
+     */
+    private void executeInLane(Long roomId, StompPrincipal principal, String sessionId, Runnable task) {
+
+        chatRoomLaneExecutor.execute(roomId, task, e -> stompErrorSender.send(principal, sessionId, e));
+    }
+
+    /**
+     * @MessageMapping 핸들러의 인바운드 스레드에서 발생한 예외를 요청한 세션의 /user/queue/errors로 응답합니다.
+     * (예: 레인 큐가 가득 차 작업이 거절된 경우)
+     */
+    @MessageExceptionHandler
+    @SendToUser(destinations = StompErrorSender.ERROR_DESTINATION, broadcast = false)
+    public ApiResponse<Object> handleStompException(Exception e) {
 
-        chatService.readMessage(roomId, Long.parseLong(readMessageRequestDto.lastClientMessageId()), Long.parseLong(readMessageRequestDto.recentClientMessageId()));
+        log.warn("STOMP message handling failed: {}", e.getMessage());
+        return StompErrorSender.toResponse(e);
     }
-}
\ No newline at end of file
+}
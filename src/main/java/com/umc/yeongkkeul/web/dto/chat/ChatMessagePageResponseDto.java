@@ -0,0 +1,17 @@
+package com.umc.yeongkkeul.web.dto.chat;
+
+import java.util.List;
+
+/**
+ * 커서 기반 채팅 메시지 조회 결과
+ *
+ * @param messages 조회된 메시지 (before 조회는 최신순, after 조회는 오래된 순)
+ * @param hasNext 같은 방향으로 더 조회할 메시지가 있는지 여부
+ * @param nextCursor 다음 페이지를 조회할 때 before/after에 넣을 메시지 ID, 더 조회할 메시지가 없으면 null
+ */
+public record ChatMessagePageResponseDto(
+        List<MessageDto> messages,
+        Boolean hasNext,
+        Long nextCursor
+) {
+}
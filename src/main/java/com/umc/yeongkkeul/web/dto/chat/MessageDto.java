@@ -10,7 +10,7 @@ import java.time.LocalDateTime;
  * 채팅 메시지 정보
  * MessageDto를 사용해서 Redis 접근
  */
-@Builder
+@Builder(toBuilder = true)
 public record MessageDto(
         @JsonSerialize(using = ToStringSerializer.class) // Long을 String으로 직렬화 Long으로 진행시 서버 내부 로직은 괜찮지만 프론트 소통과정에서 유실 발생.
         Long id, // 메시지 ID
@@ -22,6 +22,7 @@ public record MessageDto(
         Integer unreadCount, // 안읽은 사용자 수,
         Boolean rabbitMQTransmissionStatus, // RabbitMQ로 전송을 완료했는지
         Boolean finalTransmissionStatus, // 최종 메시지 전송 여부
-        Boolean saveStatus // Redis 저장 여부
+        Boolean saveStatus, // Redis 저장 여부
+        String clientMessageId // 클라이언트가 만든 메시지 ID (재전송 중복 제거용, 실시간 전송에만 포함)
 ) {
 }
\ No newline at end of file
@@ -2,8 +2,13 @@ package com.umc.yeongkkeul.web.dto.chat;
 
 import lombok.Builder;
 
+/**
+ * /topic/read.room.{id}로 전송되는 읽음 워터마크 변경 이벤트
+ * userId 사용자의 워터마크가 startMessageId에서 endMessageId로 이동했음을 알립니다.
+ */
 @Builder
 public record ReadMessageResponseDto(
+    String userId,
     String startMessageId,
     String endMessageId
 ) {
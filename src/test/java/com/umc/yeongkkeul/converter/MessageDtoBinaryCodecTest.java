@@ -0,0 +1,157 @@
+package com.umc.yeongkkeul.converter;
+
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MessageDtoBinaryCodecTest {
+
+    private static final long TSID = 0x0653_1A2B_3C4D_5E6FL; // 19자리 TSID와 같은 크기
+
+    private static MessageDto fullMessage() {
+        return MessageDto.builder()
+                .id(TSID)
+                .chatRoomId(101L)
+                .senderId(42L)
+                .messageType("TEXT")
+                .content("오늘 점심은 무지출 챌린지 성공!")
+                .timestamp(LocalDateTime.of(2025, 2, 21, 12, 34, 56, 789_000_000).toString())
+                .unreadCount(7)
+                .rabbitMQTransmissionStatus(true)
+                .finalTransmissionStatus(false)
+                .saveStatus(true)
+                .build();
+    }
+
+    @Test
+    void roundTripsAllFields() {
+
+        MessageDto message = fullMessage();
+
+        assertThat(MessageDtoBinaryCodec.decode(MessageDtoBinaryCodec.encode(message))).isEqualTo(message);
+    }
+
+    @Test
+    void roundTripsMessageWithoutFields() {
+
+        MessageDto empty = MessageDto.builder().build();
+        byte[] bytes = MessageDtoBinaryCodec.encode(empty);
+
+        assertThat(MessageDtoBinaryCodec.decode(bytes)).isEqualTo(empty);
+        assertThat(bytes).hasSize(4); // MAGIC, VERSION, 비트마스크, Boolean 값
+    }
+
+    @Test
+    void keepsNullFieldsNull() {
+
+        MessageDto message = fullMessage().toBuilder()
+                .senderId(null)
+                .content(null)
+                .unreadCount(null)
+                .finalTransmissionStatus(null)
+                .build();
+
+        MessageDto decoded = MessageDtoBinaryCodec.decode(MessageDtoBinaryCodec.encode(message));
+
+        assertThat(decoded).isEqualTo(message);
+        assertThat(decoded.senderId()).isNull();
+        assertThat(decoded.finalTransmissionStatus()).isNull();
+    }
+
+    @Test
+    void distinguishesTrueFalseAndNullForEveryBoolean() {
+
+        Boolean[] values = {Boolean.TRUE, Boolean.FALSE, null};
+        for (Boolean rabbitMQ : values) {
+            for (Boolean finalTransmission : values) {
+                for (Boolean save : values) {
+                    MessageDto message = MessageDto.builder()
+                            .id(TSID)
+                            .rabbitMQTransmissionStatus(rabbitMQ)
+                            .finalTransmissionStatus(finalTransmission)
+                            .saveStatus(save)
+                            .build();
+
+                    assertThat(MessageDtoBinaryCodec.decode(MessageDtoBinaryCodec.encode(message))).isEqualTo(message);
+                }
+            }
+        }
+    }
+
+    @Test
+    void roundTripsUnknownMessageTypeAndNonCanonicalTimestamp() {
+
+        MessageDto message = fullMessage().toBuilder()
+                .messageType("POLL")
+                .timestamp("2025-02-21 12:34") // LocalDateTime.toString() 형식이 아니면 문자열 그대로
+                .build();
+
+        assertThat(MessageDtoBinaryCodec.decode(MessageDtoBinaryCodec.encode(message))).isEqualTo(message);
+    }
+
+    @Test
+    void keepsTrailingZerosOfCanonicalTimestamp() {
+
+        // LocalDateTime.toString()은 초가 0이어도 분까지만 출력
+        String timestamp = LocalDateTime.of(2025, 2, 21, 12, 34).toString();
+        MessageDto message = fullMessage().toBuilder().timestamp(timestamp).build();
+
+        assertThat(MessageDtoBinaryCodec.decode(MessageDtoBinaryCodec.encode(message)).timestamp()).isEqualTo(timestamp);
+    }
+
+    @Test
+    void roundTripsNegativeAndLargeNumbers() {
+
+        MessageDto message = MessageDto.builder()
+                .id(Long.MIN_VALUE)
+                .chatRoomId(Long.MAX_VALUE)
+                .senderId(-1L)
+                .unreadCount(Integer.MIN_VALUE)
+                .build();
+
+        assertThat(MessageDtoBinaryCodec.decode(MessageDtoBinaryCodec.encode(message))).isEqualTo(message);
+    }
+
+    @Test
+    void doesNotEncodeClientMessageId() {
+
+        MessageDto message = fullMessage().toBuilder().clientMessageId("client-1").build();
+
+        assertThat(MessageDtoBinaryCodec.decode(MessageDtoBinaryCodec.encode(message)).clientMessageId()).isNull();
+    }
+
+    @Test
+    void rejectsUnsupportedVersion() {
+
+        byte[] bytes = MessageDtoBinaryCodec.encode(fullMessage());
+        bytes[1] = (byte) (MessageDtoBinaryCodec.VERSION + 1);
+
+        assertThatThrownBy(() -> MessageDtoBinaryCodec.decode(bytes))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("version");
+    }
+
+    @Test
+    void rejectsJson() {
+
+        byte[] json = "{\"id\":\"1\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(MessageDtoBinaryCodec.isEncoded(json)).isFalse();
+        assertThatThrownBy(() -> MessageDtoBinaryCodec.decode(json)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void isSmallerThanJson() {
+
+        MessageDto message = fullMessage();
+        byte[] json = new GenericJackson2JsonRedisSerializer().serialize(message);
+
+        assertThat(MessageDtoBinaryCodec.encode(message).length).isLessThan(json.length / 2);
+    }
+}
@@ -0,0 +1,109 @@
+package com.umc.yeongkkeul.service;
+
+import com.umc.yeongkkeul.domain.Message;
+import com.umc.yeongkkeul.repository.MessageRepository;
+import com.umc.yeongkkeul.web.dto.chat.MessageDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChatMessageHistoryReaderTest {
+
+    private static final Long CHAT_ROOM_ID = 7L;
+
+    // Redis: 1(아직 MySQL에 저장되지 않은 outbox 메시지), 4 / 정리된 가장 큰 ID: 3
+    private final NavigableSet<Long> hotIds = new TreeSet<>(List.of(1L, 4L));
+    private final Long trimmedUpToId = 3L;
+
+    // MySQL: 2, 3, 4
+    private final NavigableSet<Long> archivedIds = new TreeSet<>(List.of(2L, 3L, 4L));
+
+    private ChatMessageHistoryReader reader;
+
+    private static MessageDto messageDto(Long id) {
+        return MessageDto.builder().id(id).chatRoomId(CHAT_ROOM_ID).content("hot " + id).build();
+    }
+
+    private static Message message(Long id) {
+        return Message.builder().id(id).chatRoomId(CHAT_ROOM_ID).content("archived " + id).build();
+    }
+
+    @BeforeEach
+    void setUp() {
+
+        ChatMessageStore store = mock(ChatMessageStore.class);
+        when(store.findCompleteFromId(CHAT_ROOM_ID)).thenReturn(trimmedUpToId + 1);
+        when(store.findBefore(eq(CHAT_ROOM_ID), anyLong(), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long before = invocation.getArgument(1);
+            long min = invocation.getArgument(2);
+            int limit = invocation.getArgument(3);
+            return hotIds.subSet(min, true, before, false).descendingSet().stream().limit(limit).map(ChatMessageHistoryReaderTest::messageDto).toList();
+        });
+        when(store.findAfter(eq(CHAT_ROOM_ID), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long after = invocation.getArgument(1);
+            int limit = invocation.getArgument(2);
+            return hotIds.tailSet(after, false).stream().limit(limit).map(ChatMessageHistoryReaderTest::messageDto).toList();
+        });
+
+        MessageRepository repository = mock(MessageRepository.class);
+        when(repository.findPageOrderByIdDesc(eq(CHAT_ROOM_ID), anyLong(), anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long from = invocation.getArgument(1);
+            long to = invocation.getArgument(2);
+            Pageable pageable = invocation.getArgument(3);
+            return archivedIds.subSet(from, true, to, false).descendingSet().stream().limit(pageable.getPageSize()).map(ChatMessageHistoryReaderTest::message).toList();
+        });
+        when(repository.findPageOrderByIdAsc(eq(CHAT_ROOM_ID), anyLong(), anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long after = invocation.getArgument(1);
+            long to = invocation.getArgument(2);
+            Pageable pageable = invocation.getArgument(3);
+            return archivedIds.subSet(after, false, to, false).stream().limit(pageable.getPageSize()).map(ChatMessageHistoryReaderTest::message).toList();
+        });
+
+        reader = new ChatMessageHistoryReader(store, repository, new SimpleMeterRegistry());
+    }
+
+    private static List<Long> ids(List<MessageDto> messages) {
+        return messages.stream().map(MessageDto::id).toList();
+    }
+
+    @Test
+    void findBeforeReadsTrimmedIdsBelowOldestHotMessage() {
+
+        assertThat(ids(reader.findBefore(CHAT_ROOM_ID, null, 0L, 10))).containsExactly(4L, 3L, 2L, 1L);
+        assertThat(ids(reader.findBefore(CHAT_ROOM_ID, 4L, 0L, 2))).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void findBeforeUsesRedisOnlyAboveTrimmedIds() {
+
+        assertThat(ids(reader.findBefore(CHAT_ROOM_ID, null, 4L, 10))).containsExactly(4L);
+        assertThat(ids(reader.findBefore(CHAT_ROOM_ID, null, 0L, 1))).containsExactly(4L);
+    }
+
+    @Test
+    void findAfterMergesUnpersistedAndTrimmedIdsWithoutDuplicates() {
+
+        assertThat(ids(reader.findAfter(CHAT_ROOM_ID, 0L, 10))).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(ids(reader.findAfter(CHAT_ROOM_ID, 1L, 10))).containsExactly(2L, 3L, 4L);
+        assertThat(ids(reader.findAfter(CHAT_ROOM_ID, 0L, 2))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void findAfterUsesRedisOnlyFromTrimmedIds() {
+
+        assertThat(ids(reader.findAfter(CHAT_ROOM_ID, 3L, 10))).containsExactly(4L);
+    }
+}